@@ -0,0 +1,30 @@
+package com.decompiler.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base of the per class benchmarks: the compiled examples and several large real-world classes.
+ * Run with "-prof gc" to get the allocation rate per class as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class ClassBenchmark {
+    @Param({
+            "examples.java.ControlFlow",
+            "examples.java.Expressions",
+            "examples.java.Switches",
+            "examples.java.TryCatch",
+            "examples.java.Generics",
+            "examples.java.InnerAndAnonymousClasses",
+            "org.objectweb.asm.ClassReader",
+            "org.objectweb.asm.MethodWriter",
+            "org.objectweb.asm.util.Textifier"
+    })
+    public String className;
+}
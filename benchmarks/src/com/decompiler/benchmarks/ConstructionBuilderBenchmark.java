@@ -0,0 +1,46 @@
+package com.decompiler.benchmarks;
+
+import com.sdc.cfg.constructions.Construction;
+import com.sdc.util.DominatorTreeGenerator;
+
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * ConstructionBuilder.build for every method of the class. The builder changes the nodes,
+ * so the graphs are built again before every invocation.
+ */
+public class ConstructionBuilderBenchmark extends ClassBenchmark {
+    private ClassReader myClassReader;
+    private List<PhasedJavaMethodVisitor> myMethodVisitors;
+    private List<DominatorTreeGenerator> myGenerators;
+
+    @Setup
+    public void setUp() throws IOException {
+        myClassReader = DecompilerPhases.readClass(className);
+    }
+
+    @Setup(Level.Invocation)
+    public void buildGraphs() {
+        myMethodVisitors = DecompilerPhases.visitAndPlaceEdges(myClassReader);
+        myGenerators = DecompilerPhases.generateDominatorTrees(myMethodVisitors);
+    }
+
+    @Benchmark
+    public void build(final Blackhole blackhole) {
+        for (int i = 0; i < myMethodVisitors.size(); i++) {
+            try {
+                final Construction construction = myMethodVisitors.get(i).buildConstruction(myGenerators.get(i));
+                blackhole.consume(construction);
+            } catch (RuntimeException e) {
+                // the method is reported by the decompiler as well
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.decompiler.benchmarks;
+
+import com.decompiler.Decompiler;
+import com.decompiler.DecompilerSession;
+
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.IOException;
+
+/**
+ * The whole decompilation of the class, all phases together.
+ */
+public class DecompilerBenchmark extends ClassBenchmark {
+    private final DecompilerSession mySession = new DecompilerSession();
+    private ClassReader myClassReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        myClassReader = DecompilerPhases.readClass(className);
+    }
+
+    @Benchmark
+    public String decompile() throws IOException {
+        return Decompiler.getDecompiledCode(mySession, "java", myClassReader, "", DecompilerPhases.TEXT_WIDTH, DecompilerPhases.TAB_SIZE);
+    }
+}
@@ -0,0 +1,84 @@
+package com.decompiler.benchmarks;
+
+import com.sdc.languages.general.languageParts.GeneralClass;
+import com.sdc.languages.java.visitors.JavaClassVisitor;
+import com.sdc.util.DominatorTreeGenerator;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Prepares the input of every decompiler phase. Methods which fail in some phase are left out,
+ * the decompiler itself only reports such methods.
+ */
+public class DecompilerPhases {
+    public static final int TEXT_WIDTH = 100;
+    public static final int TAB_SIZE = 4;
+
+    private DecompilerPhases() {
+    }
+
+    @NotNull
+    public static ClassReader readClass(final @NotNull String className) throws IOException {
+        return new ClassReader(className);
+    }
+
+    @NotNull
+    public static List<PhasedJavaMethodVisitor> visit(final @NotNull ClassReader cr) {
+        final List<PhasedJavaMethodVisitor> methodVisitors = new ArrayList<PhasedJavaMethodVisitor>();
+        cr.accept(new PhasedJavaClassVisitor(TEXT_WIDTH, TAB_SIZE, methodVisitors), 0);
+
+        final Iterator<PhasedJavaMethodVisitor> iterator = methodVisitors.iterator();
+        while (iterator.hasNext()) {
+            final PhasedJavaMethodVisitor methodVisitor = iterator.next();
+            if (methodVisitor.hasDecompilingError()) {
+                iterator.remove();
+            } else {
+                methodVisitor.applyLastNode();
+            }
+        }
+        return methodVisitors;
+    }
+
+    @NotNull
+    public static List<PhasedJavaMethodVisitor> visitAndPlaceEdges(final @NotNull ClassReader cr) {
+        final List<PhasedJavaMethodVisitor> methodVisitors = visit(cr);
+
+        final Iterator<PhasedJavaMethodVisitor> iterator = methodVisitors.iterator();
+        while (iterator.hasNext()) {
+            try {
+                iterator.next().placeGraphEdges();
+            } catch (RuntimeException e) {
+                iterator.remove();
+            }
+        }
+        return methodVisitors;
+    }
+
+    @NotNull
+    public static List<DominatorTreeGenerator> generateDominatorTrees(final @NotNull List<PhasedJavaMethodVisitor> methodVisitors) {
+        final List<DominatorTreeGenerator> generators = new ArrayList<DominatorTreeGenerator>();
+
+        final Iterator<PhasedJavaMethodVisitor> iterator = methodVisitors.iterator();
+        while (iterator.hasNext()) {
+            try {
+                generators.add(iterator.next().generateDominatorTree());
+            } catch (RuntimeException e) {
+                iterator.remove();
+            }
+        }
+        return generators;
+    }
+
+    @NotNull
+    public static GeneralClass decompile(final @NotNull ClassReader cr) {
+        final JavaClassVisitor cv = new JavaClassVisitor(TEXT_WIDTH, TAB_SIZE);
+        cr.accept(cv, 0);
+        return cv.getDecompiledClass();
+    }
+}
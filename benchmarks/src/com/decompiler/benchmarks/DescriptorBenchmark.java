@@ -0,0 +1,53 @@
+package com.decompiler.benchmarks;
+
+import com.sdc.util.DeclarationWorker;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.ASM4;
+
+/**
+ * DeclarationWorker.getDescriptor for the descriptors and signatures of all fields and methods of the class,
+ * the way the class visitor translates them. The same descriptors recur in every class, so after the warmup
+ * the translations come from the descriptor cache.
+ */
+public class DescriptorBenchmark extends ClassBenchmark {
+    private final List<String> myDescriptors = new ArrayList<String>();
+
+    @Setup
+    public void setUp() throws IOException {
+        myDescriptors.clear();
+        DecompilerPhases.readClass(className).accept(new ClassVisitor(ASM4) {
+            @Override
+            public FieldVisitor visitField(final int access, final String name, final String desc, final String signature, final Object value) {
+                myDescriptors.add(signature != null ? signature : desc);
+                return null;
+            }
+
+            @Override
+            public MethodVisitor visitMethod(final int access, final String name, final String desc, final String signature, final String[] exceptions) {
+                final String description = signature != null ? signature : desc;
+                myDescriptors.add(description.substring(description.indexOf(')') + 1));
+                return null;
+            }
+        }, ClassReader.SKIP_CODE);
+    }
+
+    @Benchmark
+    public List<String> translate() {
+        final List<String> imports = new ArrayList<String>();
+        for (final String descriptor : myDescriptors) {
+            imports.add(DeclarationWorker.getDescriptor(descriptor, 0, imports, DeclarationWorker.SupportedLanguage.JAVA));
+        }
+        return imports;
+    }
+}
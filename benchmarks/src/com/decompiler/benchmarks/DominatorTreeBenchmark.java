@@ -0,0 +1,26 @@
+package com.decompiler.benchmarks;
+
+import com.sdc.util.DominatorTreeGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * DominatorTreeGenerator for every method of the class.
+ */
+public class DominatorTreeBenchmark extends ClassBenchmark {
+    private List<PhasedJavaMethodVisitor> myMethodVisitors;
+
+    @Setup
+    public void setUp() throws IOException {
+        myMethodVisitors = DecompilerPhases.visitAndPlaceEdges(DecompilerPhases.readClass(className));
+    }
+
+    @Benchmark
+    public List<DominatorTreeGenerator> generateDominatorTrees() {
+        return DecompilerPhases.generateDominatorTrees(myMethodVisitors);
+    }
+}
@@ -0,0 +1,114 @@
+package com.decompiler.benchmarks;
+
+import com.sdc.cfg.nodes.Node;
+import com.sdc.util.DominatorTreeGenerator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DominatorTreeGenerator for synthetic method graphs much larger than the ones of real classes:
+ * a sequence of if-else diamonds with early returns, or of loops nested into each other by ten.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LargeGraphDominatorTreeBenchmark {
+    private static final int LOOPS_NESTING_DEPTH = 10;
+
+    @Param({"10000", "50000"})
+    public int nodesCount;
+
+    @Param({"diamonds", "loops"})
+    public String shape;
+
+    private List<Node> myNodes;
+    private List<Integer> myLoopHeaders;
+
+    @Setup
+    public void setUp() {
+        myNodes = new ArrayList<Node>();
+        myLoopHeaders = new ArrayList<Integer>();
+        for (int i = 0; i < nodesCount; i++) {
+            myNodes.add(new Node(null, null, i));
+        }
+
+        if (shape.equals("diamonds")) {
+            createDiamonds();
+        } else {
+            createLoops();
+        }
+    }
+
+    @Benchmark
+    public DominatorTreeGenerator generateDominatorTree() {
+        return new DominatorTreeGenerator(myNodes);
+    }
+
+    @Benchmark
+    public int generateDominatorTreeAndFindLoops() {
+        final DominatorTreeGenerator gen = new DominatorTreeGenerator(myNodes);
+        int result = 0;
+        for (final int loopHeader : myLoopHeaders) {
+            result += gen.getRightIndexForLoop(loopHeader);
+        }
+        return result;
+    }
+
+    /**
+     * condition -> then, else -> join, every eighth then branch returns.
+     */
+    private void createDiamonds() {
+        int i = 0;
+        while (i + 4 < nodesCount) {
+            addEdge(i, i + 1);
+            addEdge(i, i + 2);
+            if (i % 32 != 0) {
+                addEdge(i + 1, i + 3);
+            }
+            addEdge(i + 2, i + 3);
+            i += 3;
+        }
+        for (; i + 1 < nodesCount; i++) {
+            addEdge(i, i + 1);
+        }
+    }
+
+    /**
+     * header -> inner header or body, exit; the body goes back to the innermost header
+     * and every inner loop exit goes back to the header of the enclosing loop.
+     */
+    private void createLoops() {
+        final int nestSize = 2 * LOOPS_NESTING_DEPTH + 1;
+        int i = 0;
+        while (i + nestSize < nodesCount) {
+            final int lastIndex = i + nestSize - 1;
+            for (int depth = 0; depth < LOOPS_NESTING_DEPTH; depth++) {
+                final int header = i + depth;
+                myLoopHeaders.add(header);
+                addEdge(header, header + 1);
+                addEdge(header, lastIndex - depth);
+            }
+            addEdge(i + LOOPS_NESTING_DEPTH, i + LOOPS_NESTING_DEPTH - 1);
+            for (int depth = 1; depth < LOOPS_NESTING_DEPTH; depth++) {
+                addEdge(lastIndex - depth, i + depth - 1);
+            }
+            addEdge(lastIndex, lastIndex + 1);
+            i += nestSize;
+        }
+        for (; i + 1 < nodesCount; i++) {
+            addEdge(i, i + 1);
+        }
+    }
+
+    private void addEdge(final int from, final int to) {
+        myNodes.get(from).addTail(myNodes.get(to));
+        myNodes.get(to).addAncestor(myNodes.get(from));
+    }
+}
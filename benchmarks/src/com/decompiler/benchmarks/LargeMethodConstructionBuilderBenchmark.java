@@ -0,0 +1,47 @@
+package com.decompiler.benchmarks;
+
+import com.sdc.cfg.constructions.Construction;
+import com.sdc.util.DominatorTreeGenerator;
+import generators.LargeMethods;
+
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConstructionBuilder.build for a generated method with thousands of branches in a row under a small stack.
+ * The builder changes the nodes, so the graph is built again before every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss512k")
+public class LargeMethodConstructionBuilderBenchmark {
+    @Param({"1000", "4000"})
+    public int branchesCount;
+
+    private ClassReader myClassReader;
+    private PhasedJavaMethodVisitor myMethodVisitor;
+    private DominatorTreeGenerator myGenerator;
+
+    @Setup
+    public void setUp() {
+        myClassReader = LargeMethods.generateBranches(branchesCount);
+    }
+
+    @Setup(Level.Invocation)
+    public void buildGraph() {
+        final List<PhasedJavaMethodVisitor> methodVisitors = DecompilerPhases.visitAndPlaceEdges(myClassReader);
+        myMethodVisitor = methodVisitors.get(0);
+        myGenerator = DecompilerPhases.generateDominatorTrees(methodVisitors).get(0);
+    }
+
+    @Benchmark
+    public Construction build() {
+        return myMethodVisitor.buildConstruction(myGenerator);
+    }
+}
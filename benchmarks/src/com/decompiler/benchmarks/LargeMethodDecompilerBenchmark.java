@@ -0,0 +1,43 @@
+package com.decompiler.benchmarks;
+
+import com.decompiler.Decompiler;
+import com.decompiler.DecompilerSession;
+import generators.LargeMethods;
+
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole decompilation of a generated method with the largest possible number of branches in a row
+ * under a small stack, which a recursive construction builder or printer would overflow.
+ * LargeMethodDecompilerTest checks that all the branches are printed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss512k")
+public class LargeMethodDecompilerBenchmark {
+    @Param({"5000"})
+    public int branchesCount;
+
+    @Param({"java", "kotlin", "js"})
+    public String languageName;
+
+    private final DecompilerSession mySession = new DecompilerSession();
+    private ClassReader myClassReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        myClassReader = LargeMethods.generateBranches(branchesCount);
+    }
+
+    @Benchmark
+    public String decompile() throws IOException {
+        return Decompiler.getDecompiledCode(mySession, languageName, myClassReader, "", DecompilerPhases.TEXT_WIDTH, DecompilerPhases.TAB_SIZE);
+    }
+}
@@ -0,0 +1,44 @@
+package com.decompiler.benchmarks;
+
+import com.sdc.cfg.constructions.Construction;
+import generators.LargeMethods;
+
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dominator trees and ConstructionBuilder.build for a generated method with hundreds of nested loops.
+ * The builder changes the nodes, so the graph is built again before every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LargeMethodLoopsBenchmark {
+    @Param({"100", "400"})
+    public int loopsCount;
+
+    private ClassReader myClassReader;
+    private PhasedJavaMethodVisitor myMethodVisitor;
+
+    @Setup
+    public void setUp() {
+        myClassReader = LargeMethods.generateLoops(loopsCount);
+    }
+
+    @Setup(Level.Invocation)
+    public void buildGraph() {
+        final List<PhasedJavaMethodVisitor> methodVisitors = DecompilerPhases.visitAndPlaceEdges(myClassReader);
+        myMethodVisitor = methodVisitors.get(0);
+    }
+
+    @Benchmark
+    public Construction build() {
+        return myMethodVisitor.buildConstruction(myMethodVisitor.generateDominatorTree());
+    }
+}
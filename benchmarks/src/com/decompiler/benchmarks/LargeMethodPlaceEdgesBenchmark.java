@@ -0,0 +1,45 @@
+package com.decompiler.benchmarks;
+
+import generators.LargeMethods;
+
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GeneralMethodVisitor.placeEdges for a generated method with thousands of branches.
+ * Edges are added to the nodes, so the method is visited again before every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LargeMethodPlaceEdgesBenchmark {
+    @Param({"1000", "4000"})
+    public int branchesCount;
+
+    private ClassReader myClassReader;
+    private List<PhasedJavaMethodVisitor> myMethodVisitors;
+
+    @Setup
+    public void setUp() {
+        myClassReader = LargeMethods.generateBranches(branchesCount);
+    }
+
+    @Setup(Level.Invocation)
+    public void visit() {
+        myMethodVisitors = DecompilerPhases.visit(myClassReader);
+    }
+
+    @Benchmark
+    public List<PhasedJavaMethodVisitor> placeEdges() {
+        for (final PhasedJavaMethodVisitor methodVisitor : myMethodVisitors) {
+            methodVisitor.placeGraphEdges();
+        }
+        return myMethodVisitors;
+    }
+}
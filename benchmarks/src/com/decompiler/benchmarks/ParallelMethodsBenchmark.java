@@ -0,0 +1,56 @@
+package com.decompiler.benchmarks;
+
+import com.decompiler.Decompiler;
+import com.decompiler.DecompilerSession;
+import com.sdc.util.ParallelTasks;
+import generators.LargeMethods;
+
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole decompilation of a generated class with hundreds of methods, by the class thread alone
+ * or with the method executor of the given number of threads (--methodthreads).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelMethodsBenchmark {
+    @Param({"1", "4"})
+    public int methodThreadsCount;
+
+    @Param({"200"})
+    public int methodsCount;
+
+    private ClassReader myClassReader;
+    private final DecompilerSession mySession = new DecompilerSession();
+    private ExecutorService myMethodExecutor;
+
+    @Setup
+    public void setUp() {
+        myClassReader = LargeMethods.generateMethods(methodsCount, 100);
+        if (methodThreadsCount > 1) {
+            myMethodExecutor = ParallelTasks.createExecutor(methodThreadsCount, "method-decompiler");
+        }
+        mySession.setMethodExecutor(myMethodExecutor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (myMethodExecutor != null) {
+            myMethodExecutor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public String decompile() throws IOException {
+        return Decompiler.getDecompiledCode(mySession, "java", myClassReader, "", DecompilerPhases.TEXT_WIDTH, DecompilerPhases.TAB_SIZE);
+    }
+}
@@ -0,0 +1,41 @@
+package com.decompiler.benchmarks;
+
+import com.sdc.languages.general.languageParts.Method;
+import com.sdc.languages.general.visitors.GeneralClassVisitor;
+import com.sdc.languages.general.visitors.GeneralMethodVisitor;
+import com.sdc.languages.java.visitors.JavaClassVisitor;
+import com.sdc.languages.java.visitors.JavaVisitorFactory;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Java class visitor which collects {@link PhasedJavaMethodVisitor}s of the class and its inner classes.
+ */
+public class PhasedJavaClassVisitor extends JavaClassVisitor {
+    public PhasedJavaClassVisitor(final int textWidth,
+                                  final int nestSize,
+                                  final @NotNull List<PhasedJavaMethodVisitor> methodVisitors) {
+        super(textWidth, nestSize);
+
+        this.myVisitorFactory = new JavaVisitorFactory() {
+            @NotNull
+            @Override
+            public GeneralMethodVisitor createMethodVisitor(final @NotNull Method method,
+                                                            final @NotNull String decompiledOwnerFullClassName,
+                                                            final @NotNull String decompiledOwnerSuperClassName) {
+                final PhasedJavaMethodVisitor methodVisitor = new PhasedJavaMethodVisitor(method
+                        , decompiledOwnerFullClassName, decompiledOwnerSuperClassName);
+                methodVisitors.add(methodVisitor);
+                return methodVisitor;
+            }
+
+            @NotNull
+            @Override
+            public GeneralClassVisitor createClassVisitor(final int textWidth, final int nestSize) {
+                return new PhasedJavaClassVisitor(textWidth, nestSize, methodVisitors);
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.decompiler.benchmarks;
+
+import com.sdc.cfg.constructions.Construction;
+import com.sdc.cfg.nodes.Node;
+import com.sdc.languages.general.languageParts.Method;
+import com.sdc.languages.java.visitors.JavaMethodVisitor;
+import com.sdc.util.DominatorTreeGenerator;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Java method visitor which only visits bytecode. The analysis normally made in visitEnd
+ * is run phase by phase by the benchmarks.
+ */
+public class PhasedJavaMethodVisitor extends JavaMethodVisitor {
+    public PhasedJavaMethodVisitor(final @NotNull Method method,
+                                   final @NotNull String decompiledOwnerFullClassName,
+                                   final @NotNull String decompiledOwnerSuperClassName) {
+        super(method, decompiledOwnerFullClassName, decompiledOwnerSuperClassName);
+    }
+
+    @Override
+    public void visitEnd() {
+    }
+
+    public boolean hasDecompilingError() {
+        return myDecompiledMethod.getError() != null;
+    }
+
+    public void applyLastNode() {
+        applyNode();
+    }
+
+    public void placeGraphEdges() {
+        placeEdges();
+    }
+
+    @NotNull
+    public DominatorTreeGenerator generateDominatorTree() {
+        return new DominatorTreeGenerator(myNodes);
+    }
+
+    @NotNull
+    public Construction buildConstruction(final @NotNull DominatorTreeGenerator gen) {
+        return createConstructionBuilder(myNodes, gen).build();
+    }
+
+    @NotNull
+    public List<Node> getNodes() {
+        return myNodes;
+    }
+}
@@ -0,0 +1,40 @@
+package com.decompiler.benchmarks;
+
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * GeneralMethodVisitor.placeEdges for every method of the class. Edges are added to the nodes,
+ * so the methods are visited again before every invocation.
+ */
+public class PlaceEdgesBenchmark extends ClassBenchmark {
+    private ClassReader myClassReader;
+    private List<PhasedJavaMethodVisitor> myMethodVisitors;
+
+    @Setup
+    public void setUp() throws IOException {
+        myClassReader = DecompilerPhases.readClass(className);
+    }
+
+    @Setup(Level.Invocation)
+    public void visit() {
+        myMethodVisitors = DecompilerPhases.visit(myClassReader);
+    }
+
+    @Benchmark
+    public List<PhasedJavaMethodVisitor> placeEdges() {
+        for (final PhasedJavaMethodVisitor methodVisitor : myMethodVisitors) {
+            try {
+                methodVisitor.placeGraphEdges();
+            } catch (RuntimeException e) {
+                // the method is reported by the decompiler as well
+            }
+        }
+        return myMethodVisitors;
+    }
+}
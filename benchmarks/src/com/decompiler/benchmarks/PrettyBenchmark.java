@@ -0,0 +1,32 @@
+package com.decompiler.benchmarks;
+
+import JavaPrinters.JavaPrinter;
+import pretty.PrettyPackage;
+import pretty.PrimeDoc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.IOException;
+
+/**
+ * Layout of the printed class document by PrettyPackage.pretty and by the plain layout, which ignores the width.
+ */
+public class PrettyBenchmark extends ClassBenchmark {
+    private PrimeDoc myDoc;
+
+    @Setup
+    public void setUp() throws IOException {
+        myDoc = new JavaPrinter().printClass(DecompilerPhases.decompile(DecompilerPhases.readClass(className)));
+    }
+
+    @Benchmark
+    public String pretty() {
+        return PrettyPackage.pretty(DecompilerPhases.TEXT_WIDTH, myDoc);
+    }
+
+    @Benchmark
+    public String plain() {
+        return PrettyPackage.plain(myDoc);
+    }
+}
@@ -0,0 +1,42 @@
+package com.decompiler.benchmarks;
+
+import pretty.PrettyPackage;
+import pretty.PrimeDoc;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layout of a long fill, e.g. of the constants of a large enum, which takes many lines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrettyFillBenchmark {
+    private static final int NEST_SIZE = 4;
+
+    @Param({"100", "10000"})
+    public int itemsCount;
+
+    private PrimeDoc myDoc;
+
+    @Setup
+    public void setUp() {
+        final List<PrimeDoc> items = new ArrayList<PrimeDoc>();
+        for (int i = 0; i < itemsCount; i++) {
+            items.add(PrettyPackage.text("CONSTANT_" + i + ", "));
+        }
+        myDoc = PrettyPackage.nest(NEST_SIZE, PrettyPackage.fill(items));
+    }
+
+    @Benchmark
+    public String pretty() {
+        return PrettyPackage.pretty(DecompilerPhases.TEXT_WIDTH, myDoc);
+    }
+}
@@ -0,0 +1,44 @@
+package com.decompiler.benchmarks;
+
+import pretty.PrettyPackage;
+import pretty.PrimeDoc;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layout of the document of a generated tree by PrettyPackage.pretty. Every subtree is a group
+ * nested into the group of its parent, so the same text is considered for many layouts.
+ * The plain layout makes every group flat and is the bound for the layout of the same doc.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrettyTreeBenchmark {
+    private static final int CHILDREN_COUNT = 5;
+    private static final int WIDTH = 50;
+
+    @Param({"5", "7"})
+    public int treeDepth;
+
+    private PrimeDoc myDoc;
+
+    @Setup
+    public void setUp() {
+        myDoc = PrettyPackage.showTree(PrettyPackage.generateTree(treeDepth, CHILDREN_COUNT, 5, 100));
+    }
+
+    @Benchmark
+    public String pretty() {
+        return PrettyPackage.pretty(WIDTH, myDoc);
+    }
+
+    @Benchmark
+    public String plain() {
+        return PrettyPackage.plain(myDoc);
+    }
+}
@@ -0,0 +1,25 @@
+package com.decompiler.benchmarks;
+
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Bytecode visiting in GeneralMethodVisitor up to the creation of the graph nodes.
+ */
+public class VisitingBenchmark extends ClassBenchmark {
+    private ClassReader myClassReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        myClassReader = DecompilerPhases.readClass(className);
+    }
+
+    @Benchmark
+    public List<PhasedJavaMethodVisitor> visit() {
+        return DecompilerPhases.visit(myClassReader);
+    }
+}
@@ -0,0 +1,178 @@
+package com.decompiler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.objectweb.asm.Opcodes.ASM4;
+
+/**
+ * Decompiles every class of a jar file or a class files directory on a pool of worker threads
+ * and writes the result into a source tree which mirrors the packages of the classes.
+ */
+public class BatchDecompiler {
+    private static final String DEFAULT_OUTPUT_EXTENSION = ".txt";
+
+    private final DecompilerSession mySession;
+    private final List<String> myLanguages;
+    private final int myTextWidth;
+    private final int myTabSize;
+    private final File myOutputDirectory;
+    private final int myThreadsCount;
+
+    public BatchDecompiler(final @NotNull DecompilerSession session,
+                           final @NotNull List<String> languages,
+                           final int textWidth,
+                           final int tabSize,
+                           final @NotNull File outputDirectory,
+                           final int threadsCount) {
+        this.mySession = session;
+        this.myLanguages = languages;
+        this.myTextWidth = textWidth;
+        this.myTabSize = tabSize;
+        this.myOutputDirectory = outputDirectory;
+        this.myThreadsCount = Math.max(1, threadsCount);
+    }
+
+    /**
+     * Returns the number of classes which could not be decompiled.
+     */
+    public int decompileJar(final @NotNull File jar) throws IOException, InterruptedException {
+        return decompileAll(jar);
+    }
+
+    /**
+     * Returns the number of classes which could not be decompiled.
+     */
+    public int decompileDirectory(final @NotNull File directory) throws IOException, InterruptedException {
+        return decompileAll(directory);
+    }
+
+    private int decompileAll(final @NotNull File classFiles) throws IOException, InterruptedException {
+        final ClassSource classSource = ClassSource.open(classFiles.getPath());
+        try {
+            return decompile(classSource.getClassNames(), classSource);
+        } finally {
+            classSource.close();
+        }
+    }
+
+    private int decompile(final @NotNull List<String> classNames,
+                          final @NotNull ClassSource classSource) throws InterruptedException {
+        final Set<String> classNamesSet = new HashSet<String>(classNames);
+        final ExecutorService executor = Executors.newFixedThreadPool(myThreadsCount);
+        final Map<String, Future<Boolean>> results = new LinkedHashMap<String, Future<Boolean>>();
+
+        try {
+            for (final String className : classNames) {
+                results.put(className, executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        return decompileClass(className, classNamesSet, classSource);
+                    }
+                }));
+            }
+
+            int failuresCount = 0;
+            for (final Map.Entry<String, Future<Boolean>> result : results.entrySet()) {
+                try {
+                    if (!result.getValue().get()) {
+                        failuresCount++;
+                    }
+                } catch (ExecutionException e) {
+                    // errors like StackOverflowError are not caught by decompileClass
+                    System.err.println("Failed to decompile " + result.getKey() + ": " + e.getCause());
+                    failuresCount++;
+                }
+            }
+            return failuresCount;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean decompileClass(final @NotNull String className,
+                                   final @NotNull Set<String> classNames,
+                                   final @NotNull ClassSource classSource) {
+        try {
+            final ClassReader cr = classSource.getClassReader(className);
+            final String outerClassName = getOuterClassName(cr);
+            if (outerClassName != null && classNames.contains(outerClassName)) {
+                return true;
+            }
+
+            if (myLanguages.size() == 1) {
+                final Writer writer = createOutputWriter(className, myLanguages.get(0));
+                try {
+                    Decompiler.decompile(mySession, myLanguages.get(0), cr, classSource, myTextWidth, myTabSize, writer);
+                } finally {
+                    writer.close();
+                }
+            } else {
+                final Map<String, String> decompiledCode = Decompiler.getDecompiledCode(mySession, myLanguages, cr, classSource, myTextWidth, myTabSize);
+                for (final Map.Entry<String, String> languageCode : decompiledCode.entrySet()) {
+                    final Writer writer = createOutputWriter(className, languageCode.getKey());
+                    try {
+                        writer.write(languageCode.getValue());
+                    } finally {
+                        writer.close();
+                    }
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to decompile " + className + ": " + e.getMessage());
+            return false;
+        } catch (RuntimeException e) {
+            System.err.println("Failed to decompile " + className + ": " + Decompiler.convertExceptionToString(e));
+            return false;
+        }
+    }
+
+    @NotNull
+    private Writer createOutputWriter(final @NotNull String className, final @NotNull String language) throws IOException {
+        final String extension = Language.getExtension(language);
+        final File outputFile = new File(myOutputDirectory, className + (extension == null ? DEFAULT_OUTPUT_EXTENSION : extension));
+        final File outputFileDirectory = outputFile.getParentFile();
+        if (!outputFileDirectory.mkdirs() && !outputFileDirectory.isDirectory()) {
+            throw new IOException("Could not create directory " + outputFileDirectory.getPath());
+        }
+
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), "UTF-8"));
+    }
+
+    /**
+     * Inner, local and anonymous classes are decompiled together with their outer classes, so they are skipped
+     * if the outer class is decompiled too. A class is nested if its InnerClasses attribute describes the class itself,
+     * the outer class of a local or anonymous class is the one of its EnclosingMethod attribute.
+     */
+    @Nullable
+    private static String getOuterClassName(final @NotNull ClassReader cr) {
+        final String className = cr.getClassName();
+        final String[] outerClassNames = new String[2];
+
+        cr.accept(new ClassVisitor(ASM4) {
+            @Override
+            public void visitOuterClass(final String owner, final String name, final String desc) {
+                outerClassNames[1] = owner;
+            }
+
+            @Override
+            public void visitInnerClass(final String name, final String outerName, final String innerName, final int access) {
+                if (name.equals(className)) {
+                    outerClassNames[0] = outerName != null ? outerName : "";
+                }
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+        if (outerClassNames[0] == null) {
+            return null;
+        }
+        return outerClassNames[0].isEmpty() ? outerClassNames[1] : outerClassNames[0];
+    }
+}
@@ -0,0 +1,301 @@
+package com.decompiler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+
+import java.io.*;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Class files of the decompiled classes together with their inner classes, anonymous classes and lambdas:
+ * the class path of the decompiler, a directory of class files or a jar file.
+ * <p/>
+ * A jar file is opened and indexed once and shared by all the sources opened for it at the same time,
+ * it is closed when the last of them is closed.
+ */
+public abstract class ClassSource implements Closeable {
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    public static final ClassSource CLASS_PATH = new ClassSource() {
+        @NotNull
+        @Override
+        public ClassReader getClassReader(final @NotNull String fullClassName) throws IOException {
+            return new ClassReader(fullClassName);
+        }
+
+        @NotNull
+        @Override
+        public List<String> getClassNames() {
+            return Collections.emptyList();
+        }
+
+        @NotNull
+        @Override
+        public String getPath() {
+            return "";
+        }
+    };
+
+    // canonical jar path -> opened jar
+    private static final Map<String, IndexedJar> ourOpenedJars = new HashMap<String, IndexedJar>();
+
+    /**
+     * The empty path stands for the class path of the decompiler.
+     */
+    @NotNull
+    public static ClassSource open(final @NotNull String path) throws IOException {
+        if (path.isEmpty()) {
+            return CLASS_PATH;
+        }
+
+        final File file = new File(path);
+        if (file.isDirectory()) {
+            return new DirectoryClassSource(file);
+        }
+        return new JarClassSource(path, acquireJar(file));
+    }
+
+    /**
+     * The name is an internal one, e.g. java/util/Map$Entry.
+     */
+    @NotNull
+    public abstract ClassReader getClassReader(final @NotNull String fullClassName) throws IOException;
+
+    /**
+     * Internal names of all the classes of the source, empty for the class path.
+     */
+    @NotNull
+    public abstract List<String> getClassNames();
+
+    @NotNull
+    public abstract String getPath();
+
+    /**
+     * Internal names of the classes whose names start with the name of the given class and '$', which are
+     * the nested classes of it and their nested classes. Null if the source can not list its classes.
+     */
+    @Nullable
+    public List<String> getNestedClassNames(final @NotNull String fullClassName) {
+        return null;
+    }
+
+    /**
+     * Changes with the content of the class file, but is known without reading it, e.g. the size and the CRC
+     * of a jar entry. Null if the class has to be read.
+     */
+    @Nullable
+    public String getClassFingerprint(final @NotNull String fullClassName) {
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    @NotNull
+    private static IndexedJar acquireJar(final @NotNull File file) throws IOException {
+        final String key = file.getCanonicalPath();
+        synchronized (ourOpenedJars) {
+            IndexedJar jar = ourOpenedJars.get(key);
+            if (jar == null) {
+                jar = new IndexedJar(key, new JarFile(file));
+                ourOpenedJars.put(key, jar);
+            }
+            jar.myHandlesCount++;
+            return jar;
+        }
+    }
+
+    private static void releaseJar(final @NotNull IndexedJar jar) throws IOException {
+        synchronized (ourOpenedJars) {
+            if (--jar.myHandlesCount > 0) {
+                return;
+            }
+            ourOpenedJars.remove(jar.myKey);
+        }
+        jar.myJarFile.close();
+    }
+
+    @NotNull
+    private static ClassReader readClass(final @NotNull InputStream is) throws IOException {
+        try {
+            return new ClassReader(is);
+        } finally {
+            is.close();
+        }
+    }
+
+    @NotNull
+    private static String getClassName(final @NotNull String classFileName) {
+        return classFileName.substring(0, classFileName.length() - CLASS_FILE_EXTENSION.length());
+    }
+
+    private static class IndexedJar {
+        private final String myKey;
+        private final JarFile myJarFile;
+        // class name -> entry
+        private final Map<String, JarEntry> myClassEntries = new LinkedHashMap<String, JarEntry>();
+        private final NavigableSet<String> mySortedClassNames;
+        private int myHandlesCount = 0;
+
+        public IndexedJar(final @NotNull String key, final @NotNull JarFile jarFile) {
+            this.myKey = key;
+            this.myJarFile = jarFile;
+
+            final Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                final JarEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && entry.getName().endsWith(CLASS_FILE_EXTENSION)) {
+                    myClassEntries.put(getClassName(entry.getName()), entry);
+                }
+            }
+            this.mySortedClassNames = new TreeSet<String>(myClassEntries.keySet());
+        }
+    }
+
+    private static class JarClassSource extends ClassSource {
+        private final String myPath;
+        private IndexedJar myJar;
+
+        public JarClassSource(final @NotNull String path, final @NotNull IndexedJar jar) {
+            this.myPath = path;
+            this.myJar = jar;
+        }
+
+        @NotNull
+        @Override
+        public ClassReader getClassReader(final @NotNull String fullClassName) throws IOException {
+            final IndexedJar jar = getJar();
+            final JarEntry entry = jar.myClassEntries.get(fullClassName);
+            if (entry == null) {
+                throw new FileNotFoundException(fullClassName + " is not found in " + myPath);
+            }
+            return readClass(jar.myJarFile.getInputStream(entry));
+        }
+
+        @NotNull
+        @Override
+        public List<String> getClassNames() {
+            return new ArrayList<String>(getJar().myClassEntries.keySet());
+        }
+
+        @NotNull
+        @Override
+        public String getPath() {
+            return myPath;
+        }
+
+        @NotNull
+        @Override
+        public List<String> getNestedClassNames(final @NotNull String fullClassName) {
+            final String prefix = fullClassName + "$";
+            return new ArrayList<String>(getJar().mySortedClassNames.subSet(prefix, prefix + Character.MAX_VALUE));
+        }
+
+        @Nullable
+        @Override
+        public String getClassFingerprint(final @NotNull String fullClassName) {
+            final JarEntry entry = getJar().myClassEntries.get(fullClassName);
+            if (entry == null || entry.getCrc() == -1) {
+                return null;
+            }
+            return entry.getSize() + ":" + entry.getCrc();
+        }
+
+        @Override
+        public void close() throws IOException {
+            final IndexedJar jar;
+            synchronized (this) {
+                jar = myJar;
+                myJar = null;
+            }
+            if (jar != null) {
+                releaseJar(jar);
+            }
+        }
+
+        @NotNull
+        private synchronized IndexedJar getJar() {
+            if (myJar == null) {
+                throw new IllegalStateException(myPath + " is closed");
+            }
+            return myJar;
+        }
+    }
+
+    private static class DirectoryClassSource extends ClassSource {
+        private final File myDirectory;
+
+        public DirectoryClassSource(final @NotNull File directory) {
+            this.myDirectory = directory;
+        }
+
+        @NotNull
+        @Override
+        public ClassReader getClassReader(final @NotNull String fullClassName) throws IOException {
+            return readClass(new FileInputStream(new File(myDirectory, fullClassName + CLASS_FILE_EXTENSION)));
+        }
+
+        @NotNull
+        @Override
+        public List<String> getClassNames() {
+            final List<String> classNames = new ArrayList<String>();
+            collectClassNames(myDirectory, "", classNames);
+            return classNames;
+        }
+
+        @NotNull
+        @Override
+        public String getPath() {
+            return myDirectory.getPath();
+        }
+
+        @NotNull
+        @Override
+        public List<String> getNestedClassNames(final @NotNull String fullClassName) {
+            final int simpleNamePos = fullClassName.lastIndexOf('/') + 1;
+            final String packagePrefix = fullClassName.substring(0, simpleNamePos);
+            final String nestedClassFilePrefix = fullClassName.substring(simpleNamePos) + "$";
+
+            final List<String> nestedClassNames = new ArrayList<String>();
+            final File[] files = new File(myDirectory, packagePrefix).listFiles();
+            if (files != null) {
+                for (final File file : files) {
+                    final String fileName = file.getName();
+                    if (fileName.startsWith(nestedClassFilePrefix) && fileName.endsWith(CLASS_FILE_EXTENSION) && file.isFile()) {
+                        nestedClassNames.add(getClassName(packagePrefix + fileName));
+                    }
+                }
+            }
+            return nestedClassNames;
+        }
+
+        @Nullable
+        @Override
+        public String getClassFingerprint(final @NotNull String fullClassName) {
+            final File file = new File(myDirectory, fullClassName + CLASS_FILE_EXTENSION);
+            final long lastModified = file.lastModified();
+            return lastModified == 0 ? null : file.length() + ":" + lastModified;
+        }
+
+        private static void collectClassNames(final @NotNull File directory,
+                                              final @NotNull String packagePrefix,
+                                              final @NotNull List<String> classNames) {
+            final File[] files = directory.listFiles();
+            if (files == null) {
+                return;
+            }
+
+            for (final File file : files) {
+                if (file.isDirectory()) {
+                    collectClassNames(file, packagePrefix + file.getName() + "/", classNames);
+                } else if (file.getName().endsWith(CLASS_FILE_EXTENSION)) {
+                    classNames.add(getClassName(packagePrefix + file.getName()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.decompiler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.objectweb.asm.Opcodes.ASM4;
+
+/**
+ * Persistent cache of decompiled code. Entries are files named by a hash of the class bytes (together with
+ * the bytes of its nested classes) and the output settings, so any change of the input gives a new entry.
+ * The total size of the entries is bounded, least recently used ones are evicted first.
+ * <p/>
+ * Only the code decompiled without errors is stored, a later version of the decompiler may do better.
+ */
+public class DecompiledCodeCache {
+    // has to be changed together with any change of the decompiled code, the entries of other versions are not used
+    private static final String FORMAT_VERSION = "2";
+    // the entries made by another build of the decompiler jar are not used either
+    private static final String DECOMPILER_BUILD = getDecompilerBuild();
+    private static final String ENTRY_EXTENSION = ".cache";
+    private static final String CHARSET = "UTF-8";
+
+    private final File myDirectory;
+    private final long myMaxSize;
+    private long mySize = 0;
+
+    // entry name -> entry size, in the access order
+    private final LinkedHashMap<String, Long> myEntries = new LinkedHashMap<String, Long>(16, 0.75f, true);
+
+    private final AtomicLong myHitsCount = new AtomicLong();
+    private final AtomicLong myMissesCount = new AtomicLong();
+
+    public DecompiledCodeCache(final @NotNull File directory, final long maxSize) throws IOException {
+        if (!directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Could not create cache directory " + directory.getPath());
+        }
+        this.myDirectory = directory;
+        this.myMaxSize = maxSize;
+        loadEntries();
+    }
+
+    @NotNull
+    public String getKey(final @NotNull String languageName,
+                         final @NotNull ClassReader cr,
+                         final @NotNull ClassSource classSource,
+                         final int textWidth,
+                         final int tabSize,
+                         final boolean plainLayout) {
+        final MessageDigest digest = createDigest();
+        digest.update(cr.b);
+
+        final List<String> nestedClassNames = classSource.getNestedClassNames(cr.getClassName());
+        if (nestedClassNames == null) {
+            for (final ClassReader nestedClassReader : getNestedClassReaders(cr, classSource)) {
+                digest.update(nestedClassReader.b);
+            }
+        } else {
+            updateWithNestedClasses(digest, nestedClassNames, classSource);
+        }
+
+        // the plain layout does not depend on the text width
+        final String layout = plainLayout ? "plain" : String.valueOf(textWidth);
+        final String settings = FORMAT_VERSION + ":" + DECOMPILER_BUILD + ":" + Language.getCanonicalName(languageName)
+                + ":" + layout + ":" + tabSize;
+        update(digest, settings);
+
+        final StringBuilder key = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.toString();
+    }
+
+    @Nullable
+    public String get(final @NotNull String key) {
+        final File entryFile = getEntryFile(key);
+        synchronized (this) {
+            if (myEntries.get(key) == null) {
+                myMissesCount.incrementAndGet();
+                return null;
+            }
+        }
+
+        try {
+            final String code = readFile(entryFile);
+            entryFile.setLastModified(System.currentTimeMillis());
+            myHitsCount.incrementAndGet();
+            return code;
+        } catch (IOException e) {
+            synchronized (this) {
+                removeEntry(key);
+            }
+            myMissesCount.incrementAndGet();
+            return null;
+        }
+    }
+
+    public void put(final @NotNull String key, final @NotNull String code) {
+        final File entryFile = getEntryFile(key);
+        try {
+            final File temporaryFile = File.createTempFile(key, ".tmp", myDirectory);
+            final Writer writer = new OutputStreamWriter(new FileOutputStream(temporaryFile), CHARSET);
+            try {
+                writer.write(code);
+            } finally {
+                writer.close();
+            }
+
+            synchronized (this) {
+                removeEntry(key);
+                if (!temporaryFile.renameTo(entryFile)) {
+                    temporaryFile.delete();
+                    return;
+                }
+                myEntries.put(key, entryFile.length());
+                mySize += entryFile.length();
+                evict();
+            }
+        } catch (IOException e) {
+            // the cache is only an optimization, the code is decompiled again next time
+        }
+    }
+
+    public long getHitsCount() {
+        return myHitsCount.get();
+    }
+
+    public long getMissesCount() {
+        return myMissesCount.get();
+    }
+
+    public synchronized long getSize() {
+        return mySize;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        return "Cache: " + getHitsCount() + " hits, " + getMissesCount() + " misses, " + getSize() + " bytes stored";
+    }
+
+    private void loadEntries() {
+        final File[] files = myDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(final File file1, final File file2) {
+                final long lastModified1 = file1.lastModified();
+                final long lastModified2 = file2.lastModified();
+                return lastModified1 < lastModified2 ? -1 : (lastModified1 == lastModified2 ? 0 : 1);
+            }
+        });
+
+        for (final File file : files) {
+            final String fileName = file.getName();
+            if (fileName.endsWith(ENTRY_EXTENSION)) {
+                myEntries.put(fileName.substring(0, fileName.length() - ENTRY_EXTENSION.length()), file.length());
+                mySize += file.length();
+            } else if (fileName.endsWith(".tmp")) {
+                file.delete();
+            }
+        }
+        evict();
+    }
+
+    private void evict() {
+        final Iterator<Map.Entry<String, Long>> iterator = myEntries.entrySet().iterator();
+        while (mySize > myMaxSize && iterator.hasNext()) {
+            final Map.Entry<String, Long> entry = iterator.next();
+            getEntryFile(entry.getKey()).delete();
+            mySize -= entry.getValue();
+            iterator.remove();
+        }
+    }
+
+    private void removeEntry(final @NotNull String key) {
+        final Long size = myEntries.remove(key);
+        if (size != null) {
+            getEntryFile(key).delete();
+            mySize -= size;
+        }
+    }
+
+    @NotNull
+    private File getEntryFile(final @NotNull String key) {
+        return new File(myDirectory, key + ENTRY_EXTENSION);
+    }
+
+    @NotNull
+    private static String readFile(final @NotNull File file) throws IOException {
+        final Reader reader = new InputStreamReader(new FileInputStream(file), CHARSET);
+        try {
+            final StringBuilder sb = new StringBuilder((int) file.length());
+            final char[] buffer = new char[8192];
+            int count;
+            while ((count = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, count);
+            }
+            return sb.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    @NotNull
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The nested classes are identified by their fingerprints if the source has them, so a cache hit
+     * does not read them.
+     */
+    private static void updateWithNestedClasses(final @NotNull MessageDigest digest,
+                                                final @NotNull List<String> nestedClassNames,
+                                                final @NotNull ClassSource classSource) {
+        final List<String> sortedNestedClassNames = new ArrayList<String>(nestedClassNames);
+        Collections.sort(sortedNestedClassNames);
+
+        for (final String nestedClassName : sortedNestedClassNames) {
+            update(digest, nestedClassName);
+            final String fingerprint = classSource.getClassFingerprint(nestedClassName);
+            if (fingerprint != null) {
+                update(digest, fingerprint);
+            } else {
+                try {
+                    digest.update(classSource.getClassReader(nestedClassName).b);
+                } catch (IOException e) {
+                    // the decompiler reports missing nested classes itself
+                }
+            }
+        }
+    }
+
+    private static void update(final @NotNull MessageDigest digest, final @NotNull String text) {
+        try {
+            digest.update(text.getBytes(CHARSET));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The size and the modification time of the decompiler jar, empty if the decompiler is not run from a jar.
+     */
+    @NotNull
+    private static String getDecompilerBuild() {
+        final CodeSource codeSource = DecompiledCodeCache.class.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return "";
+        }
+        try {
+            final File location = new File(codeSource.getLocation().toURI());
+            return location.isFile() ? location.length() + "-" + location.lastModified() : "";
+        } catch (URISyntaxException e) {
+            return "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Nested classes are printed together with their outer class, so their bytes are a part of the key.
+     * Used for the sources which can not list their classes.
+     */
+    @NotNull
+    private static List<ClassReader> getNestedClassReaders(final @NotNull ClassReader cr,
+                                                           final @NotNull ClassSource classSource) {
+        final List<ClassReader> nestedClassReaders = new ArrayList<ClassReader>();
+        final Set<String> visitedClasses = new HashSet<String>();
+        final Deque<ClassReader> queue = new ArrayDeque<ClassReader>();
+
+        visitedClasses.add(cr.getClassName());
+        queue.add(cr);
+        while (!queue.isEmpty()) {
+            final ClassReader currentClassReader = queue.poll();
+            final String nestedClassPrefix = currentClassReader.getClassName() + "$";
+            final List<String> nestedClassNames = new ArrayList<String>();
+
+            currentClassReader.accept(new ClassVisitor(ASM4) {
+                @Override
+                public void visitInnerClass(final String name, final String outerName, final String innerName, final int access) {
+                    if (name.startsWith(nestedClassPrefix)) {
+                        nestedClassNames.add(name);
+                    }
+                }
+            }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+            for (final String nestedClassName : nestedClassNames) {
+                if (visitedClasses.add(nestedClassName)) {
+                    try {
+                        final ClassReader nestedClassReader = classSource.getClassReader(nestedClassName);
+                        nestedClassReaders.add(nestedClassReader);
+                        queue.add(nestedClassReader);
+                    } catch (IOException e) {
+                        // the decompiler reports missing nested classes itself
+                    }
+                }
+            }
+        }
+
+        return nestedClassReaders;
+    }
+}
@@ -5,12 +5,17 @@ import com.sdc.languages.general.visitors.GeneralClassVisitor;
 import com.sdc.languages.java.visitors.JavaClassVisitor;
 import com.sdc.languages.js.visitors.JSClassVisitor;
 import com.sdc.languages.kotlin.visitors.KotlinClassVisitor;
+import com.sdc.util.ParallelTasks;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.util.TraceClassVisitor;
 
 import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 
 public class Decompiler {
@@ -23,23 +28,55 @@ public class Decompiler {
             return;
         }
 
+        final DecompilerSession session = new DecompilerSession();
         if (decompilerParameters.isEnableGraphDrawing()) {
-            Settings.getInstance().enableGraphDrawing();
+            session.enableGraphDrawing();
             if (decompilerParameters.getClassPath() != null) {
                 final File f = new File(decompilerParameters.getClassPath());
-                Settings.getInstance().setPath(f.getParent());
+                session.setPath(f.getParent());
             }
         }
 
-        if (decompilerParameters.getClassName() == null && decompilerParameters.getClassPath() == null) {
-            System.out.println("One of the following option is required: -c, -p. Use --help for more usage information.");
+        final String layout = decompilerParameters.getLayout();
+        if (!layout.equals(DecompilerParameters.PRETTY_LAYOUT) && !layout.equals(DecompilerParameters.PLAIN_LAYOUT)) {
+            System.out.println("Unknown layout " + layout + ", it should be pretty or plain. Use --help for more usage information.");
             return;
         }
+        session.setPlainLayout(layout.equals(DecompilerParameters.PLAIN_LAYOUT));
+
+        if (decompilerParameters.getMethodThreadsCount() > 1) {
+            session.setMethodExecutor(
+                    ParallelTasks.createExecutor(decompilerParameters.getMethodThreadsCount(), "method-decompiler"));
+        }
+
+        final DecompiledCodeCache cache = decompilerParameters.getCachePath() == null
+                ? null
+                : new DecompiledCodeCache(new File(decompilerParameters.getCachePath()), decompilerParameters.getCacheSize() * 1024 * 1024);
+        session.setDecompiledCodeCache(cache);
+
+        final DecompilerStatistics statistics = decompilerParameters.isPrintStatistics() ? new DecompilerStatistics() : null;
+        session.setStatistics(statistics);
 
         final String language = decompilerParameters.getLanguage();
         final int tabSize = decompilerParameters.getTabSize();
         final int textWidth = decompilerParameters.getTextWidth();
 
+        if (decompilerParameters.isServer()) {
+            new DecompilerServer(session, decompilerParameters.getPort(), decompilerParameters.getThreadsCount()).run();
+            return;
+        }
+
+        if (decompilerParameters.getJarPath() != null || decompilerParameters.getDirectoryPath() != null) {
+            decompileAll(session, decompilerParameters);
+            printStatistics(cache, statistics);
+            return;
+        }
+
+        if (decompilerParameters.getClassName() == null && decompilerParameters.getClassPath() == null) {
+            System.out.println("One of the following option is required: -c, -p, -j, -d. Use --help for more usage information.");
+            return;
+        }
+
         ClassReader cr;
 
         if (decompilerParameters.getClassName() != null) {
@@ -50,7 +87,56 @@ public class Decompiler {
             cr = new ClassReader(new FileInputStream(classPath));
         }
 
-        System.out.println(getDecompiledCode(language, cr, "", textWidth, tabSize));
+        final List<String> languages = decompilerParameters.getLanguages();
+        if (languages.size() > 1) {
+            for (final Map.Entry<String, String> decompiledCode : getDecompiledCode(session, languages, cr, ClassSource.CLASS_PATH, textWidth, tabSize).entrySet()) {
+                System.out.println("// " + decompiledCode.getKey());
+                System.out.println(decompiledCode.getValue());
+            }
+        } else {
+            System.out.println(getDecompiledCode(session, language, cr, ClassSource.CLASS_PATH, textWidth, tabSize));
+        }
+        printStatistics(cache, statistics);
+    }
+
+    private static void printStatistics(final @Nullable DecompiledCodeCache cache, final @Nullable DecompilerStatistics statistics) {
+        if (cache != null) {
+            System.err.println(cache);
+        }
+        if (statistics != null) {
+            statistics.printSummary(System.err);
+        }
+    }
+
+    private static void decompileAll(final @NotNull DecompilerSession session,
+                                     final @NotNull DecompilerParameters decompilerParameters) throws IOException {
+        final String outputPath = decompilerParameters.getOutputPath();
+        if (outputPath == null) {
+            System.out.println("Option -o is required for -j and -d. Use --help for more usage information.");
+            return;
+        }
+
+        final BatchDecompiler batchDecompiler = new BatchDecompiler(session, decompilerParameters.getLanguages()
+                , decompilerParameters.getTextWidth(), decompilerParameters.getTabSize()
+                , new File(outputPath), decompilerParameters.getThreadsCount());
+
+        int failuresCount;
+        try {
+            if (decompilerParameters.getJarPath() != null) {
+                failuresCount = batchDecompiler.decompileJar(new File(decompilerParameters.getJarPath()));
+            } else {
+                final String directoryPath = decompilerParameters.getDirectoryPath();
+                assert directoryPath != null;
+                failuresCount = batchDecompiler.decompileDirectory(new File(directoryPath));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (failuresCount > 0) {
+            System.out.println(failuresCount + " classes could not be decompiled.");
+        }
     }
 
     @NotNull
@@ -67,16 +153,108 @@ public class Decompiler {
     }
 
     @NotNull
-    public static String getDecompiledCode(final @NotNull String languageName,
+    public static String getDecompiledCode(final @NotNull DecompilerSession session,
+                                           final @NotNull String languageName,
                                            final @NotNull ClassReader cr,
                                            final @NotNull String classFilesJarPath,
                                            final int textWidth,
                                            final int tabSize) throws IOException {
+        final ClassSource classSource = ClassSource.open(classFilesJarPath);
+        try {
+            return getDecompiledCode(session, languageName, cr, classSource, textWidth, tabSize);
+        } finally {
+            classSource.close();
+        }
+    }
+
+    @NotNull
+    public static String getDecompiledCode(final @NotNull DecompilerSession session,
+                                           final @NotNull String languageName,
+                                           final @NotNull ClassReader cr,
+                                           final @NotNull ClassSource classSource,
+                                           final int textWidth,
+                                           final int tabSize) throws IOException {
+        final DecompiledCodeCache cache = session.getDecompiledCodeCache();
+        final String key = cache == null ? null : cache.getKey(languageName, cr, classSource, textWidth, tabSize, session.isPlainLayout());
+
+        if (key != null) {
+            final String cachedCode = cache.get(key);
+            if (cachedCode != null) {
+                return cachedCode;
+            }
+        }
+
+        try {
+            final StringBuilder sb = new StringBuilder();
+            final boolean hasErrors = writeDecompiledCode(session, languageName, cr, classSource, textWidth, tabSize, sb);
+
+            final String decompiledCode = sb.toString();
+            if (key != null && !hasErrors) {
+                cache.put(key, decompiledCode);
+            }
+            return decompiledCode;
+        } catch (RuntimeException e) {
+            return "General class decompiling error occurred:" + convertExceptionToString(e);
+        }
+    }
+
+    /**
+     * Decompiles the class into several languages. The bytecode is visited and analysed once per language,
+     * the visitors of the languages build different nodes and change them while structuring.
+     * The result maps the language names to the code, in the order of the given names.
+     */
+    @NotNull
+    public static Map<String, String> getDecompiledCode(final @NotNull DecompilerSession session,
+                                                        final @NotNull List<String> languageNames,
+                                                        final @NotNull ClassReader cr,
+                                                        final @NotNull ClassSource classSource,
+                                                        final int textWidth,
+                                                        final int tabSize) throws IOException {
+        final Map<String, String> decompiledCode = new LinkedHashMap<String, String>();
+        for (final String languageName : languageNames) {
+            decompiledCode.put(languageName, getDecompiledCode(session, languageName, cr, classSource, textWidth, tabSize));
+        }
+        return decompiledCode;
+    }
+
+    /**
+     * Writes the decompiled code to the output while it is being laid out. If the cache is enabled
+     * the code has to be stored there as a whole, so it is built in memory in this case.
+     */
+    public static void decompile(final @NotNull DecompilerSession session,
+                                 final @NotNull String languageName,
+                                 final @NotNull ClassReader cr,
+                                 final @NotNull ClassSource classSource,
+                                 final int textWidth,
+                                 final int tabSize,
+                                 final @NotNull Appendable output) throws IOException {
+        if (session.getDecompiledCodeCache() != null) {
+            output.append(getDecompiledCode(session, languageName, cr, classSource, textWidth, tabSize));
+            return;
+        }
+
+        try {
+            writeDecompiledCode(session, languageName, cr, classSource, textWidth, tabSize, output);
+        } catch (RuntimeException e) {
+            output.append("\nGeneral class decompiling error occurred:").append(convertExceptionToString(e));
+        }
+    }
+
+    /**
+     * Returns true if some parts of the class could not be decompiled and their errors are written instead.
+     */
+    private static boolean writeDecompiledCode(final @NotNull DecompilerSession session,
+                                               final @NotNull String languageName,
+                                               final @NotNull ClassReader cr,
+                                               final @NotNull ClassSource classSource,
+                                               final int textWidth,
+                                               final int tabSize,
+                                               final @NotNull Appendable output) throws IOException {
         ClassVisitor specifiedLanguageClassVisitor;
         final StringWriter sw = new StringWriter();
 
-        final String lowerCaseName = languageName.toLowerCase();
-        if (lowerCaseName.equals("javascript")) {
+        final String lowerCaseName = Language.getCanonicalName(languageName);
+        if (lowerCaseName.equals("js")) {
             specifiedLanguageClassVisitor = new JSClassVisitor(textWidth, tabSize);
         } else if (lowerCaseName.equals("kotlin")) {
             specifiedLanguageClassVisitor = new KotlinClassVisitor(textWidth, tabSize);
@@ -87,18 +265,17 @@ public class Decompiler {
         }
 
         if (specifiedLanguageClassVisitor instanceof GeneralClassVisitor) {
-            ((GeneralClassVisitor) specifiedLanguageClassVisitor).setClassFilesJarPath(classFilesJarPath);
+            ((GeneralClassVisitor) specifiedLanguageClassVisitor).setSession(session);
+            ((GeneralClassVisitor) specifiedLanguageClassVisitor).setClassSource(classSource);
         }
 
-        try {
-            cr.accept(specifiedLanguageClassVisitor, 0);
-            if (specifiedLanguageClassVisitor instanceof GeneralClassVisitor) {
-                return ((GeneralClassVisitor) specifiedLanguageClassVisitor).getDecompiledCode();
-            } else {
-                return sw.toString();
-            }
-        } catch (RuntimeException e) {
-            return "General class decompiling error occurred:" + convertExceptionToString(e);
+        cr.accept(specifiedLanguageClassVisitor, 0);
+        if (specifiedLanguageClassVisitor instanceof GeneralClassVisitor) {
+            ((GeneralClassVisitor) specifiedLanguageClassVisitor).writeDecompiledCode(output);
+            return ((GeneralClassVisitor) specifiedLanguageClassVisitor).hasErrors();
+        } else {
+            output.append(sw.toString());
+            return false;
         }
     }
 }
@@ -1,6 +1,7 @@
 package com.decompiler;
 
 import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -8,12 +9,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 
+@Parameters(separators = "=")
 public class DecompilerParameters {
+    public static final String PRETTY_LAYOUT = "pretty";
+    public static final String PLAIN_LAYOUT = "plain";
+
     @Parameter(description = "Prints a disassembled view of the given class using the specified language.")
     private List<String> myParameters = new ArrayList<String>();
 
     @Parameter(names = {"-l", "--language"},
-               description = "Decompiler's output language name. Currently supported languages are: {java, javascript, kotlin}.")
+               description = "Decompiler's output language name or comma separated names. Currently supported languages are: {java, javascript, kotlin}.")
     private String myLanguage = "trace";
 
     @Parameter(names = {"-h", "--help"}, description = "Prints help information.", help = true)
@@ -26,12 +31,49 @@ public class DecompilerParameters {
     @Parameter(names = {"-p", "--path"}, description = "Path to .class file.")
     private String myClassPath = null;
 
+    @Parameter(names = {"-j", "--jar"}, description = "Path to .jar file. Every class of the archive is decompiled.")
+    private String myJarPath = null;
+
+    @Parameter(names = {"-d", "--dir"},
+               description = "Path to a directory with .class files. Every class of the directory tree is decompiled.")
+    private String myDirectoryPath = null;
+
+    @Parameter(names = {"-o", "--output"},
+               description = "Output directory for the decompiled source tree (used with --jar and --dir).")
+    private String myOutputPath = null;
+
+    @Parameter(names = {"-t", "--threads"}, description = "Number of worker threads used with --jar and --dir.")
+    private int myThreadsCount = Runtime.getRuntime().availableProcessors();
+
+    @Parameter(names = {"-mt", "--methodthreads"},
+               description = "Number of threads analysing and printing the methods of a class, 1 means they are handled by the class thread.")
+    private int myMethodThreadsCount = 1;
+
+    @Parameter(names = {"--cache"}, description = "Directory of the persistent decompiled code cache.")
+    private String myCachePath = null;
+
+    @Parameter(names = {"--cachesize"}, description = "Maximum size of the decompiled code cache in megabytes.")
+    private long myCacheSize = 256;
+
+    @Parameter(names = {"--server"}, description = "Runs the decompiler as a daemon serving requests on a local socket.")
+    private boolean myServer = false;
+
+    @Parameter(names = {"--port"}, description = "Port of the decompiler daemon (0 means any free port).")
+    private int myPort = 7531;
+
+    @Parameter(names = {"--stats"}, description = "Prints time, allocation and graph size statistics of the decompiler phases.")
+    private boolean myPrintStatistics = false;
+
     @Parameter(names = {"-ns", "--tabsize"}, description = "Size of tabulation in class representation.")
     private int myTabSize = 4;
 
     @Parameter(names = {"-tw", "--textwidth"}, description = "Decompiled class code width.")
     private int myTextWidth = 100;
 
+    @Parameter(names = {"--layout"},
+               description = "Layout of the decompiled code: pretty fits it to the text width, plain breaks lines only between statements and declarations and is much faster.")
+    private String myLayout = PRETTY_LAYOUT;
+
     @Parameter(names = {"-g", "--graph"}, description = "Draws decompiled class method graphs.")
     private boolean myEnableGraphDrawing = false;
 
@@ -44,6 +86,20 @@ public class DecompilerParameters {
         return myLanguage;
     }
 
+    /**
+     * Every language is decompiled by its own pass over the class, see {@link Decompiler}.
+     */
+    @NotNull
+    public List<String> getLanguages() {
+        final List<String> languages = new ArrayList<String>();
+        for (final String language : myLanguage.split(",")) {
+            if (!language.trim().isEmpty()) {
+                languages.add(language.trim());
+            }
+        }
+        return languages;
+    }
+
     @Nullable
     public String getClassName() {
         return myClassName;
@@ -54,6 +110,50 @@ public class DecompilerParameters {
         return myClassPath;
     }
 
+    @Nullable
+    public String getJarPath() {
+        return myJarPath;
+    }
+
+    @Nullable
+    public String getDirectoryPath() {
+        return myDirectoryPath;
+    }
+
+    @Nullable
+    public String getOutputPath() {
+        return myOutputPath;
+    }
+
+    public int getThreadsCount() {
+        return myThreadsCount;
+    }
+
+    public int getMethodThreadsCount() {
+        return myMethodThreadsCount;
+    }
+
+    @Nullable
+    public String getCachePath() {
+        return myCachePath;
+    }
+
+    public long getCacheSize() {
+        return myCacheSize;
+    }
+
+    public boolean isPrintStatistics() {
+        return myPrintStatistics;
+    }
+
+    public boolean isServer() {
+        return myServer;
+    }
+
+    public int getPort() {
+        return myPort;
+    }
+
     public int getTextWidth() {
         return myTextWidth;
     }
@@ -62,6 +162,11 @@ public class DecompilerParameters {
         return myTabSize;
     }
 
+    @NotNull
+    public String getLayout() {
+        return myLayout;
+    }
+
     public boolean isEnableGraphDrawing() {
         return myEnableGraphDrawing;
     }
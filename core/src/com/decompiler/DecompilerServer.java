@@ -0,0 +1,235 @@
+package com.decompiler;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassReader;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decompiler daemon which keeps one warmed up JVM and serves requests on a local TCP socket.
+ * A connection may send any number of requests, connections are served concurrently.
+ * <p/>
+ * Request: language (UTF), text width (int), tab size (int), request kind (byte) and then
+ * either class bytes (int length, bytes) for {@link #CLASS_BYTES_REQUEST}
+ * or jar path and entry class name (two UTFs) for {@link #JAR_ENTRY_REQUEST}.
+ * <p/>
+ * Response: status (byte) and the code as a sequence of UTF-8 chunks (int length, bytes)
+ * which ends with a chunk of zero length. The code is sent while it is being laid out.
+ * <p/>
+ * The jars and directories of the requests stay opened and indexed until the server stops,
+ * so the server does not see the changes of a jar made while it is running.
+ */
+public class DecompilerServer {
+    public static final byte CLASS_BYTES_REQUEST = 0;
+    public static final byte JAR_ENTRY_REQUEST = 1;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_ERROR = 1;
+
+    private static final int CHUNK_SIZE = 8192;
+    // the class files are much smaller, a larger length is a broken request
+    private static final int MAX_CLASS_BYTES_LENGTH = 64 * 1024 * 1024;
+
+    private final DecompilerSession mySession;
+    private final int myPort;
+    private final int myThreadsCount;
+
+    // canonical path -> opened class source
+    private final Map<String, ClassSource> myClassSources = new HashMap<String, ClassSource>();
+
+    public DecompilerServer(final @NotNull DecompilerSession session, final int port, final int threadsCount) {
+        this.mySession = session;
+        this.myPort = port;
+        this.myThreadsCount = Math.max(1, threadsCount);
+    }
+
+    public void run() throws IOException {
+        final ServerSocket serverSocket = new ServerSocket(myPort, 50, InetAddress.getByName(null));
+        final ExecutorService executor = Executors.newFixedThreadPool(myThreadsCount);
+
+        System.out.println("Decompiler server is listening on port " + serverSocket.getLocalPort());
+        try {
+            while (!serverSocket.isClosed()) {
+                final Socket socket = serverSocket.accept();
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        serve(socket);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdownNow();
+            serverSocket.close();
+            closeClassSources();
+        }
+    }
+
+    private void serve(final @NotNull Socket socket) {
+        try {
+            try {
+                final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+                while (true) {
+                    final String language;
+                    try {
+                        language = in.readUTF();
+                    } catch (EOFException e) {
+                        return;
+                    }
+                    final int textWidth = in.readInt();
+                    final int tabSize = in.readInt();
+                    final byte requestKind = in.readByte();
+
+                    serveRequest(in, out, language, textWidth, tabSize, requestKind);
+                    out.flush();
+                }
+            } finally {
+                socket.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Decompiler server connection error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Decompiler server connection error: " + Decompiler.convertExceptionToString(e));
+        }
+    }
+
+    private void serveRequest(final @NotNull DataInputStream in,
+                              final @NotNull DataOutputStream out,
+                              final @NotNull String language,
+                              final int textWidth,
+                              final int tabSize,
+                              final byte requestKind) throws IOException {
+        byte[] classBytes = null;
+        String classFilesJarPath = "";
+        String className = null;
+
+        if (requestKind == CLASS_BYTES_REQUEST) {
+            final int length = in.readInt();
+            if (length < 0 || length > MAX_CLASS_BYTES_LENGTH) {
+                // the rest of the request can not be skipped, so the connection is closed
+                writeError(out, "Invalid class bytes length " + length);
+                out.flush();
+                throw new IOException("Invalid class bytes length " + length);
+            }
+            classBytes = new byte[length];
+            in.readFully(classBytes);
+        } else if (requestKind == JAR_ENTRY_REQUEST) {
+            classFilesJarPath = in.readUTF();
+            className = in.readUTF();
+        } else {
+            // the length of the request is not known, so the connection is closed
+            writeError(out, "Unknown request kind " + requestKind);
+            out.flush();
+            throw new IOException("Unknown request kind " + requestKind);
+        }
+
+        final ClassSource classSource;
+        final ClassReader cr;
+        try {
+            classSource = getClassSource(classFilesJarPath);
+            cr = classBytes != null ? new ClassReader(classBytes) : classSource.getClassReader(className);
+        } catch (IOException e) {
+            writeError(out, String.valueOf(e.getMessage()));
+            return;
+        } catch (RuntimeException e) {
+            writeError(out, Decompiler.convertExceptionToString(e));
+            return;
+        }
+
+        out.writeByte(STATUS_OK);
+        final Writer writer = new ChunkWriter(out);
+        Decompiler.decompile(mySession, language, cr, classSource, textWidth, tabSize, writer);
+        writer.close();
+    }
+
+    @NotNull
+    private ClassSource getClassSource(final @NotNull String path) throws IOException {
+        if (path.isEmpty()) {
+            return ClassSource.CLASS_PATH;
+        }
+
+        final String key = new File(path).getCanonicalPath();
+        synchronized (myClassSources) {
+            ClassSource classSource = myClassSources.get(key);
+            if (classSource == null) {
+                classSource = ClassSource.open(path);
+                myClassSources.put(key, classSource);
+            }
+            return classSource;
+        }
+    }
+
+    private void closeClassSources() {
+        synchronized (myClassSources) {
+            for (final ClassSource classSource : myClassSources.values()) {
+                try {
+                    classSource.close();
+                } catch (IOException e) {
+                    System.err.println("Could not close " + classSource.getPath() + ": " + e.getMessage());
+                }
+            }
+            myClassSources.clear();
+        }
+    }
+
+    private static void writeError(final @NotNull DataOutputStream out, final @NotNull String message) throws IOException {
+        out.writeByte(STATUS_ERROR);
+        final Writer writer = new ChunkWriter(out);
+        writer.write(message);
+        writer.close();
+    }
+
+    /**
+     * Sends the written text as length prefixed UTF-8 chunks, closing writes the terminating empty chunk
+     * and leaves the underlying stream open for the next response.
+     */
+    private static class ChunkWriter extends Writer {
+        private final DataOutputStream myOutput;
+        private final StringBuilder myBuffer = new StringBuilder(CHUNK_SIZE);
+
+        public ChunkWriter(final @NotNull DataOutputStream output) {
+            this.myOutput = output;
+        }
+
+        @Override
+        public void write(final char[] buffer, final int offset, final int length) throws IOException {
+            myBuffer.append(buffer, offset, length);
+            if (myBuffer.length() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writeChunk(myBuffer.length() > 0 && Character.isHighSurrogate(myBuffer.charAt(myBuffer.length() - 1))
+                    ? myBuffer.length() - 1
+                    : myBuffer.length());
+            myOutput.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writeChunk(myBuffer.length());
+            myOutput.writeInt(0);
+        }
+
+        private void writeChunk(final int length) throws IOException {
+            if (length > 0) {
+                // a surrogate pair is never split between chunks to keep every chunk valid UTF-8
+                final byte[] bytes = myBuffer.substring(0, length).getBytes("UTF-8");
+                myBuffer.delete(0, length);
+                myOutput.writeInt(bytes.length);
+                myOutput.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.decompiler;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Configuration and shared caches of a decompilation run. It is passed to the class visitors and kept by
+ * the decompiled classes for their printing, so runs with different sessions do not interfere in one JVM.
+ * The session is configured before the run and only read afterwards, the cache, the statistics
+ * and the executor may be used by many threads at once.
+ */
+public class DecompilerSession {
+    private String myPath;
+    private boolean myGraphDrawingEnabled;
+    private boolean myPlainLayout;
+    private DecompiledCodeCache myDecompiledCodeCache;
+    private DecompilerStatistics myStatistics;
+    private ExecutorService myMethodExecutor;
+
+    /**
+     * Directory of the drawn method graphs.
+     */
+    @Nullable
+    public String getPath() {
+        return myPath;
+    }
+
+    public void setPath(final @Nullable String path) {
+        this.myPath = path;
+    }
+
+    public void enableGraphDrawing() {
+        this.myGraphDrawingEnabled = true;
+    }
+
+    public boolean isGraphDrawingEnabled() {
+        return myGraphDrawingEnabled;
+    }
+
+    /**
+     * The decompiled code is not fitted to the text width, see {@link com.sdc.util.CodeLayout}.
+     */
+    public boolean isPlainLayout() {
+        return myPlainLayout;
+    }
+
+    public void setPlainLayout(final boolean plainLayout) {
+        this.myPlainLayout = plainLayout;
+    }
+
+    @Nullable
+    public DecompiledCodeCache getDecompiledCodeCache() {
+        return myDecompiledCodeCache;
+    }
+
+    public void setDecompiledCodeCache(final @Nullable DecompiledCodeCache decompiledCodeCache) {
+        this.myDecompiledCodeCache = decompiledCodeCache;
+    }
+
+    @Nullable
+    public DecompilerStatistics getStatistics() {
+        return myStatistics;
+    }
+
+    public void setStatistics(final @Nullable DecompilerStatistics statistics) {
+        this.myStatistics = statistics;
+    }
+
+    /**
+     * Executor of the analysis and printing of the methods of a class, they are run by the class thread if it is null.
+     * See {@link com.sdc.util.ParallelTasks}.
+     */
+    @Nullable
+    public ExecutorService getMethodExecutor() {
+        return myMethodExecutor;
+    }
+
+    public void setMethodExecutor(final @Nullable ExecutorService methodExecutor) {
+        this.myMethodExecutor = methodExecutor;
+    }
+}
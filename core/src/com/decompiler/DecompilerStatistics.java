@@ -0,0 +1,238 @@
+package com.decompiler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+
+/**
+ * Wall time, allocation and graph size of every decompiled method and class, by decompiler phases.
+ * Enabled with --stats or by DecompilerSession.setStatistics, collected from all decompiling threads.
+ */
+public class DecompilerStatistics {
+    public enum Phase {
+        VISITING("bytecode visiting"),
+        GRAPH("graph building"),
+        DOMINATORS("dominator trees"),
+        CONSTRUCTIONS("constructions building"),
+        PRINTING("printing");
+
+        private final String myDescription;
+
+        Phase(final @NotNull String description) {
+            this.myDescription = description;
+        }
+
+        @NotNull
+        public String getDescription() {
+            return myDescription;
+        }
+    }
+
+    /**
+     * Measures consecutive phases on the current thread.
+     */
+    public static class Measurement {
+        private final long[] myTimes = new long[Phase.values().length];
+        private final long[] myAllocatedBytes = new long[Phase.values().length];
+        private long myPhaseStartTime;
+        private long myPhaseStartAllocatedBytes;
+
+        private Measurement() {
+            startPhase();
+        }
+
+        public void startPhase() {
+            myPhaseStartTime = System.nanoTime();
+            myPhaseStartAllocatedBytes = getCurrentThreadAllocatedBytes();
+        }
+
+        public void finishPhase(final @NotNull Phase phase) {
+            myTimes[phase.ordinal()] += System.nanoTime() - myPhaseStartTime;
+            myAllocatedBytes[phase.ordinal()] += getCurrentThreadAllocatedBytes() - myPhaseStartAllocatedBytes;
+            startPhase();
+        }
+
+        public long getTime(final @NotNull Phase phase) {
+            return myTimes[phase.ordinal()];
+        }
+
+        /**
+         * Returns 0 if the JVM does not measure thread allocation.
+         */
+        public long getAllocatedBytes(final @NotNull Phase phase) {
+            return myAllocatedBytes[phase.ordinal()];
+        }
+
+        public long getTotalTime() {
+            long totalTime = 0;
+            for (final long time : myTimes) {
+                totalTime += time;
+            }
+            return totalTime;
+        }
+    }
+
+    public static class MethodStatistics {
+        private final String myMethodName;
+        private final int myNodesCount;
+        private final int myEdgesCount;
+        private final Measurement myMeasurement;
+
+        private MethodStatistics(final @NotNull String methodName,
+                                 final int nodesCount,
+                                 final int edgesCount,
+                                 final @NotNull Measurement measurement) {
+            this.myMethodName = methodName;
+            this.myNodesCount = nodesCount;
+            this.myEdgesCount = edgesCount;
+            this.myMeasurement = measurement;
+        }
+
+        @NotNull
+        public String getMethodName() {
+            return myMethodName;
+        }
+
+        public int getNodesCount() {
+            return myNodesCount;
+        }
+
+        public int getEdgesCount() {
+            return myEdgesCount;
+        }
+
+        @NotNull
+        public Measurement getMeasurement() {
+            return myMeasurement;
+        }
+    }
+
+    public static class ClassStatistics {
+        private final String myClassName;
+        private final long myOutputSize;
+        private final Measurement myMeasurement;
+
+        private ClassStatistics(final @NotNull String className, final long outputSize, final @NotNull Measurement measurement) {
+            this.myClassName = className;
+            this.myOutputSize = outputSize;
+            this.myMeasurement = measurement;
+        }
+
+        @NotNull
+        public String getClassName() {
+            return myClassName;
+        }
+
+        public long getOutputSize() {
+            return myOutputSize;
+        }
+
+        @NotNull
+        public Measurement getMeasurement() {
+            return myMeasurement;
+        }
+    }
+
+    private static final int SLOWEST_METHODS_COUNT = 10;
+
+    private final List<MethodStatistics> myMethodStatistics = new ArrayList<MethodStatistics>();
+    private final List<ClassStatistics> myClassStatistics = new ArrayList<ClassStatistics>();
+
+    @NotNull
+    public Measurement startMeasurement() {
+        return new Measurement();
+    }
+
+    public synchronized void addMethodStatistics(final @NotNull String methodName,
+                                                 final int nodesCount,
+                                                 final int edgesCount,
+                                                 final @NotNull Measurement measurement) {
+        myMethodStatistics.add(new MethodStatistics(methodName, nodesCount, edgesCount, measurement));
+    }
+
+    public synchronized void addClassStatistics(final @NotNull String className,
+                                                final long outputSize,
+                                                final @NotNull Measurement measurement) {
+        myClassStatistics.add(new ClassStatistics(className, outputSize, measurement));
+    }
+
+    @NotNull
+    public synchronized List<MethodStatistics> getMethodStatistics() {
+        return new ArrayList<MethodStatistics>(myMethodStatistics);
+    }
+
+    @NotNull
+    public synchronized List<ClassStatistics> getClassStatistics() {
+        return new ArrayList<ClassStatistics>(myClassStatistics);
+    }
+
+    public void printSummary(final @NotNull PrintStream out) {
+        final List<MethodStatistics> methodStatistics = getMethodStatistics();
+        final List<ClassStatistics> classStatistics = getClassStatistics();
+
+        long nodesCount = 0;
+        long edgesCount = 0;
+        for (final MethodStatistics statistics : methodStatistics) {
+            nodesCount += statistics.getNodesCount();
+            edgesCount += statistics.getEdgesCount();
+        }
+        long outputSize = 0;
+        for (final ClassStatistics statistics : classStatistics) {
+            outputSize += statistics.getOutputSize();
+        }
+
+        out.println("Classes: " + classStatistics.size() + ", output size: " + outputSize + " chars");
+        out.println("Methods: " + methodStatistics.size() + ", nodes: " + nodesCount + ", edges: " + edgesCount);
+
+        for (final Phase phase : Phase.values()) {
+            long time = 0;
+            long allocatedBytes = 0;
+            for (final MethodStatistics statistics : methodStatistics) {
+                time += statistics.getMeasurement().getTime(phase);
+                allocatedBytes += statistics.getMeasurement().getAllocatedBytes(phase);
+            }
+            for (final ClassStatistics statistics : classStatistics) {
+                time += statistics.getMeasurement().getTime(phase);
+                allocatedBytes += statistics.getMeasurement().getAllocatedBytes(phase);
+            }
+            out.println(String.format("  %-24s %10.1f ms %10.1f MB", phase.getDescription(), time / 1e6, allocatedBytes / 1e6));
+        }
+
+        Collections.sort(methodStatistics, new Comparator<MethodStatistics>() {
+            @Override
+            public int compare(final MethodStatistics statistics1, final MethodStatistics statistics2) {
+                final long time1 = statistics1.getMeasurement().getTotalTime();
+                final long time2 = statistics2.getMeasurement().getTotalTime();
+                return time1 > time2 ? -1 : (time1 == time2 ? 0 : 1);
+            }
+        });
+
+        out.println("Slowest methods:");
+        for (final MethodStatistics statistics : methodStatistics.subList(0, Math.min(SLOWEST_METHODS_COUNT, methodStatistics.size()))) {
+            final StringBuilder sb = new StringBuilder();
+            sb.append(String.format("  %10.1f ms  %s (%d nodes, %d edges:",
+                    statistics.getMeasurement().getTotalTime() / 1e6, statistics.getMethodName()
+                    , statistics.getNodesCount(), statistics.getEdgesCount()));
+            for (final Phase phase : Phase.values()) {
+                if (phase != Phase.PRINTING) {
+                    sb.append(String.format(" %s %.1f ms", phase.getDescription(), statistics.getMeasurement().getTime(phase) / 1e6));
+                }
+            }
+            out.println(sb.append(")").toString());
+        }
+    }
+
+    private static long getCurrentThreadAllocatedBytes() {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (allocationMXBean.isThreadAllocatedMemorySupported() && allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+                return allocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return 0;
+    }
+}
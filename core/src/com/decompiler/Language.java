@@ -20,6 +20,7 @@ public class Language {
         final Map<String, String> languageToExtensionMap = new HashMap<String, String>();
         languageToExtensionMap.put("Java", ".java");
         languageToExtensionMap.put("JavaScript", ".js");
+        languageToExtensionMap.put("JS", ".js");
         languageToExtensionMap.put("Kotlin", ".kt");
         myLanguageToExtensionMap = Collections.unmodifiableMap(languageToExtensionMap);
     }
@@ -33,6 +34,25 @@ public class Language {
         return myLanguageToExtensionMap.get(myName);
     }
 
+    @Nullable
+    public static String getExtension(final @NotNull String languageName) {
+        for (final Map.Entry<String, String> entry : myLanguageToExtensionMap.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(languageName)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The name in the lower case which is the same for all the names of a language, e.g. js for JavaScript.
+     */
+    @NotNull
+    public static String getCanonicalName(final @NotNull String languageName) {
+        final String lowerCaseName = languageName.toLowerCase();
+        return lowerCaseName.equals("javascript") ? "js" : lowerCaseName;
+    }
+
     @NotNull
     public String getName() {
         return myName;
@@ -6,41 +6,61 @@ import com.sdc.languages.java.printers.JavaOperationPrinter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.sdc.ast.Type.PrimitiveType.*;
 
 
+/**
+ * Immutable, so the types are shared: the factory methods return the same instance for the same arguments.
+ */
 public class Type {
-    public static final Type BOOLEAN_TYPE = new Type(BOOLEAN);
-    public static final Type INT_TYPE = new Type(INT);
-    public static final Type DOUBLE_TYPE = new Type(DOUBLE);
-    public static final Type CHAR_TYPE = new Type(CHAR);
-    public static final Type FLOAT_TYPE = new Type(FLOAT);
-    public static final Type BYTE_TYPE = new Type(BYTE);
-    public static final Type SHORT_TYPE = new Type(SHORT);
-    public static final Type LONG_TYPE = new Type(LONG);
-    public static final Type VOID = new Type((PrimitiveType) null);
+    public static final Type BOOLEAN_TYPE = new Type(BOOLEAN, null, 0, null, false);
+    public static final Type INT_TYPE = new Type(INT, null, 0, null, false);
+    public static final Type DOUBLE_TYPE = new Type(DOUBLE, null, 0, null, false);
+    public static final Type CHAR_TYPE = new Type(CHAR, null, 0, null, false);
+    public static final Type FLOAT_TYPE = new Type(FLOAT, null, 0, null, false);
+    public static final Type BYTE_TYPE = new Type(BYTE, null, 0, null, false);
+    public static final Type SHORT_TYPE = new Type(SHORT, null, 0, null, false);
+    public static final Type LONG_TYPE = new Type(LONG, null, 0, null, false);
+    public static final Type VOID = new Type(null, null, 0, null, false);
 
     public enum PrimitiveType {
         BOOLEAN, BYTE, CHAR, INT, SHORT, LONG, FLOAT, DOUBLE
     }
 
-    private final PrimitiveType myType;
-    private final String myClassName;
-    private String myOriginalClassName = null;
-    private final int myDimensions; // for arrays with primitive types or classes
-    private boolean myIsExtends = false;
+    // the interned types are dropped all at once after this number, so a long running decompiler keeps
+    // interning the types of the classes it decompiles now; types are compared by value, so it is safe
+    private static final int INTERNED_TYPES_CAPACITY = 1 << 16;
 
-    private static Set<String> myPrimitiveTypes = new HashSet<String>();
+    private static final ConcurrentMap<String, Type> ourInternedTypes = new ConcurrentHashMap<String, Type>();
+    private static final Map<PrimitiveType, Type> ourPrimitiveTypes = new EnumMap<PrimitiveType, Type>(PrimitiveType.class);
+    private static final Map<String, PrimitiveType> ourPrimitiveTypeNames = new HashMap<String, PrimitiveType>();
 
     static {
+        for (final Type type : new Type[]{BOOLEAN_TYPE, INT_TYPE, DOUBLE_TYPE, CHAR_TYPE, FLOAT_TYPE, BYTE_TYPE, SHORT_TYPE, LONG_TYPE}) {
+            ourPrimitiveTypes.put(type.myType, type);
+        }
         for (final PrimitiveType type : PrimitiveType.values()) {
-            myPrimitiveTypes.add(type.name().toLowerCase());
+            ourPrimitiveTypeNames.put(type.name().toLowerCase(), type);
         }
     }
 
+    private final PrimitiveType myType;
+    private final String myClassName;
+    private final String myOriginalClassName;
+    private final int myDimensions; // for arrays with primitive types or classes
+    private final boolean myIsExtends;
+    private final int myHashCode;
+
+    // derived types, computed once
+    private Type myTypeWithOnePairOfBracketsLess;
+    private Type myTypeWithoutBrackets;
+
     private Type(final @Nullable PrimitiveType type,
                  final @Nullable String className,
                  final int dimensions,
@@ -51,35 +71,66 @@ public class Type {
         this.myDimensions = dimensions;
         this.myOriginalClassName = originalClassName;
         this.myIsExtends = isExtends;
-    }
 
-    public Type(final @Nullable PrimitiveType type) {
-        this.myType = type;
-        this.myClassName = null;
-        this.myDimensions = 0;
-        this.myOriginalClassName = null;
+        int hashCode = type != null ? type.hashCode() : 0;
+        hashCode = 31 * hashCode + (className != null ? className.hashCode() : 0);
+        this.myHashCode = 31 * hashCode + dimensions;
     }
 
-    public Type(final @NotNull String className) {
-        this(className, 0);
+    @NotNull
+    public static Type valueOf(final @Nullable PrimitiveType type) {
+        return type == null ? VOID : ourPrimitiveTypes.get(type);
     }
 
-    public Type(final @NotNull PrimitiveType type, final int dimensions) {
-        this.myType = type;
-        this.myDimensions = dimensions;
-        this.myClassName = null;
+    @NotNull
+    public static Type valueOf(final @NotNull PrimitiveType type, final int dimensions) {
+        if (dimensions == 0) {
+            return valueOf(type);
+        }
+        final String key = type.name() + "/" + dimensions;
+        final Type internedType = ourInternedTypes.get(key);
+        if (internedType != null) {
+            return internedType;
+        }
+        return intern(key, new Type(type, null, dimensions, null, false));
     }
 
-    public Type(final @Nullable String className, int dimensions) {
-        this.myOriginalClassName = className;
+    /**
+     * Returns VOID for null as the type of no value.
+     */
+    @NotNull
+    public static Type valueOf(final @Nullable String className) {
+        if (className == null) {
+            return VOID;
+        }
+        final Type type = ourInternedTypes.get(className);
+        if (type != null) {
+            return type;
+        }
+        return intern(className, parse(className, 0));
+    }
 
+    /**
+     * The class name may contain its own brackets, e.g. int[], they are added to the given dimensions.
+     */
+    @NotNull
+    public static Type valueOf(final @Nullable String className, final int dimensions) {
         if (className == null) {
-            this.myClassName = null;
-            this.myType = null;
-            this.myDimensions = 0;
-            return;
+            return VOID;
         }
+        if (dimensions == 0) {
+            return valueOf(className);
+        }
+        final String key = className + "/" + dimensions;
+        final Type type = ourInternedTypes.get(key);
+        if (type != null) {
+            return type;
+        }
+        return intern(key, parse(className, dimensions));
+    }
 
+    @NotNull
+    private static Type parse(final @NotNull String className, int dimensions) {
         String newClassName = className.trim().replace("?", "");
         while (newClassName.endsWith("[]")) {
             dimensions++;
@@ -90,14 +141,21 @@ public class Type {
             newClassName = newClassName.substring("Array<".length(), newClassName.length() - 1);
         }
 
-        this.myDimensions = dimensions;
-        if (myPrimitiveTypes.contains(newClassName.toLowerCase())) {
-            this.myType = PrimitiveType.valueOf(newClassName.toUpperCase());
-            this.myClassName = null;
+        final PrimitiveType primitiveType = ourPrimitiveTypeNames.get(newClassName.toLowerCase());
+        if (primitiveType != null) {
+            return new Type(primitiveType, null, dimensions, className, false);
         } else {
-            this.myClassName = newClassName;
-            this.myType = null;
+            return new Type(null, newClassName, dimensions, className, false);
+        }
+    }
+
+    @NotNull
+    private static Type intern(final @NotNull String key, final @NotNull Type type) {
+        if (ourInternedTypes.size() >= INTERNED_TYPES_CAPACITY) {
+            ourInternedTypes.clear();
         }
+        final Type internedType = ourInternedTypes.putIfAbsent(key, type);
+        return internedType != null ? internedType : type;
     }
 
     @NotNull
@@ -183,7 +241,7 @@ public class Type {
 
         final Type type = (Type) o;
 
-        if (myDimensions != type.myDimensions) {
+        if (myHashCode != type.myHashCode || myDimensions != type.myDimensions) {
             return false;
         }
         if (myClassName != null ? !myClassName.equals(type.myClassName) : type.myClassName != null) {
@@ -195,10 +253,7 @@ public class Type {
 
     @Override
     public int hashCode() {
-        int result = myType != null ? myType.hashCode() : 0;
-        result = 31 * result + (myClassName != null ? myClassName.hashCode() : 0);
-        result = 31 * result + myDimensions;
-        return result;
+        return myHashCode;
     }
 
     @NotNull
@@ -222,7 +277,7 @@ public class Type {
                 return BOOLEAN_TYPE;
             }
         }
-        return new Type("Object");
+        return valueOf("Object");
     }
 
     public boolean isDoubleLength() {
@@ -249,16 +304,26 @@ public class Type {
 
     @NotNull
     public Type getTypeWithOnPairOfBrackets() {
-        if (myDimensions <= 0) {
-            return new Type(myType, myClassName, 0, null, false);
-        } else {
-            return new Type(myType, myClassName, myDimensions - 1, null, false);
+        // a race computes equal types, any of them may be kept
+        Type type = myTypeWithOnePairOfBracketsLess;
+        if (type == null) {
+            type = new Type(myType, myClassName, myDimensions <= 0 ? 0 : myDimensions - 1, null, false);
+            myTypeWithOnePairOfBracketsLess = type;
         }
+        return type;
     }
 
     @Nullable
     public Type getTypeWithoutBrackets() {
-        return new Type(myType, myClassName, 0, myOriginalClassName, myIsExtends);
+        if (myDimensions == 0) {
+            return this;
+        }
+        Type type = myTypeWithoutBrackets;
+        if (type == null) {
+            type = new Type(myType, myClassName, 0, myOriginalClassName, myIsExtends);
+            myTypeWithoutBrackets = type;
+        }
+        return type;
     }
 
     public boolean isVoid() {
@@ -86,7 +86,7 @@ public class Cast extends PriorityExpression {
             case CHAR_CAST:
                 return CHAR_TYPE;
             default:
-                return new Type(param);
+                return Type.valueOf(param);
         }
     }
 
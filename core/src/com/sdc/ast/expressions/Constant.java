@@ -11,7 +11,7 @@ import java.util.List;
 
 
 public class Constant extends PriorityExpression {
-    public static Constant NULL = new Constant("null", false, new Type("Object"));
+    public static Constant NULL = new Constant("null", false, Type.valueOf("Object"));
 
     private final Object myValue;
     private final boolean myIsStringValue;
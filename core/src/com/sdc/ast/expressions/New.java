@@ -11,7 +11,7 @@ public class New extends PriorityExpression {
     private final Invocation myConstructor;
 
     public New(final @NotNull Invocation constructor) {
-        super(ExpressionType.NEW, new Type(constructor.getFunction()));
+        super(ExpressionType.NEW, Type.valueOf(constructor.getFunction()));
         this.myConstructor = constructor;
     }
 
@@ -16,7 +16,7 @@ public class NewArray extends PriorityExpression {
     private final List<Expression> myInitializationValues;
 
     public NewArray(final int dimensionsCount, final @NotNull String type, final @NotNull List<Expression> dimensions) {
-        super(ExpressionType.NEWARRAY, new Type(type, dimensionsCount));
+        super(ExpressionType.NEWARRAY, Type.valueOf(type, dimensionsCount));
         this.myDimensionsCount = dimensionsCount;
         this.myDimensions = dimensions;
         this.myInitializationValues = new ArrayList<Expression>();
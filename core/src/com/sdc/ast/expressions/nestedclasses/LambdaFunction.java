@@ -13,7 +13,7 @@ import java.util.List;
 public class LambdaFunction extends NestedClass {
     public LambdaFunction(final @NotNull GeneralClass nestedClass, final @NotNull String type) {
         super(nestedClass);
-        setType(new Type(type));
+        setType(Type.valueOf(type));
     }
 
     @Nullable
@@ -12,7 +12,7 @@ public class NestedClass extends Expression {
     protected final GeneralClass myNestedClass;
 
     public NestedClass(final @NotNull GeneralClass nestedClass) {
-        super(new Type(nestedClass.getName()));
+        super(Type.valueOf(nestedClass.getName()));
         this.myNestedClass = nestedClass;
     }
 
@@ -0,0 +1,70 @@
+package com.sdc.cfg;
+
+import com.sdc.cfg.nodes.Node;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Edges of the method graph by node indexes, in compressed arrays: the successors of the node v
+ * are mySuccessors[mySuccessorsStart[v]] ... mySuccessors[mySuccessorsStart[v + 1] - 1] in the order of its tails,
+ * the predecessors are stored in the same way in the order of its ancestors.
+ * <p/>
+ * The view is made once the edges are placed, later changes of the nodes are not reflected.
+ */
+public class ControlFlowGraph {
+    private final int mySize;
+    private final int[] mySuccessorsStart;
+    private final int[] mySuccessors;
+    private final int[] myPredecessorsStart;
+    private final int[] myPredecessors;
+
+    public ControlFlowGraph(final @NotNull List<Node> nodes) {
+        this.mySize = nodes.size();
+
+        mySuccessorsStart = new int[mySize + 1];
+        myPredecessorsStart = new int[mySize + 1];
+        for (int v = 0; v < mySize; v++) {
+            mySuccessorsStart[v + 1] = mySuccessorsStart[v] + nodes.get(v).getListOfTails().size();
+            myPredecessorsStart[v + 1] = myPredecessorsStart[v] + nodes.get(v).getAncestors().size();
+        }
+
+        mySuccessors = new int[mySuccessorsStart[mySize]];
+        myPredecessors = new int[myPredecessorsStart[mySize]];
+        for (int v = 0; v < mySize; v++) {
+            copyIndexes(nodes.get(v).getListOfTails(), mySuccessors, mySuccessorsStart[v]);
+            copyIndexes(nodes.get(v).getAncestors(), myPredecessors, myPredecessorsStart[v]);
+        }
+    }
+
+    private static void copyIndexes(final @NotNull List<Node> nodes, final @NotNull int[] indexes, final int start) {
+        for (int i = 0; i < nodes.size(); i++) {
+            indexes[start + i] = nodes.get(i).getIndex();
+        }
+    }
+
+    public int getSize() {
+        return mySize;
+    }
+
+    public int getEdgesCount() {
+        return mySuccessors.length;
+    }
+
+    public int getSuccessorsCount(final int v) {
+        return mySuccessorsStart[v + 1] - mySuccessorsStart[v];
+    }
+
+    public int getSuccessor(final int v, final int i) {
+        return mySuccessors[mySuccessorsStart[v] + i];
+    }
+
+    public int getPredecessorsCount(final int v) {
+        return myPredecessorsStart[v + 1] - myPredecessorsStart[v];
+    }
+
+    public int getPredecessor(final int v, final int i) {
+        return myPredecessors[myPredecessorsStart[v] + i];
+    }
+}
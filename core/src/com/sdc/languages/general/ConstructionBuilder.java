@@ -29,6 +29,11 @@ public class ConstructionBuilder {
     private final int size;
     private final int[] domi;
 
+    // the rest of the region after the first construction, it is built by build() after this builder
+    private ConstructionBuilder myNextConstructionBuilder;
+    private Construction myConstructionBeforeNext;
+    private final List<Runnable> myActionsAfterNextConstruction = new ArrayList<Runnable>();
+
     public ConstructionBuilder(final @NotNull List<Node> myNodes, final @NotNull DominatorTreeGenerator gen) {
         this.myNodes = myNodes;
         this.gen = gen;
@@ -42,9 +47,43 @@ public class ConstructionBuilder {
         return new ConstructionBuilder(myNodes, gen);
     }
 
+    /**
+     * The region is a chain of constructions, every next one is built by its own builder over the rest of the region.
+     * The builders of the chain are run one after another and then finished in the reverse order,
+     * as if each of them built the next one itself, so the stack depth does not grow with the length of the chain.
+     */
     @NotNull
     public Construction build() {
-        return extractArrayForEach(extractIteratorForEach(extractFor(build(myNodes.get(0)))));
+        final List<ConstructionBuilder> builders = new ArrayList<ConstructionBuilder>();
+        final List<Construction> firstConstructions = new ArrayList<Construction>();
+
+        ConstructionBuilder builder = this;
+        while (builder != null) {
+            builders.add(builder);
+            firstConstructions.add(builder.build(builder.myNodes.get(0)));
+            builder = builder.myNextConstructionBuilder;
+        }
+
+        Construction nextConstruction = null;
+        for (int i = builders.size() - 1; i >= 0; i--) {
+            builder = builders.get(i);
+            if (builder.myNextConstructionBuilder != null) {
+                builder.myConstructionBeforeNext.setNextConstruction(nextConstruction);
+            }
+            for (final Runnable action : builder.myActionsAfterNextConstruction) {
+                action.run();
+            }
+            nextConstruction = builder.extractCompoundConstructions(firstConstructions.get(i));
+        }
+        return nextConstruction;
+    }
+
+    /**
+     * Recognizes the constructions which start with the given one, e.g. for loops made of a block and a while loop.
+     */
+    @NotNull
+    protected Construction extractCompoundConstructions(final @NotNull Construction baseConstruction) {
+        return extractArrayForEach(extractIteratorForEach(extractFor(baseConstruction)));
     }
 
     @NotNull
@@ -208,11 +247,16 @@ public class ConstructionBuilder {
             final Construction elementaryBlock = extractElementaryBlock(node);
             final Construction currentConstruction = extractConstruction(node);
 
-            if (node.getCondition() == null && !(node instanceof Switch)) {
-                node.setOuterConstruction(elementaryBlock);
-            } else {
-                node.setOuterConstruction(currentConstruction);
-            }
+            runAfterNextConstruction(new Runnable() {
+                @Override
+                public void run() {
+                    if (node.getCondition() == null && !(node instanceof Switch)) {
+                        node.setOuterConstruction(elementaryBlock);
+                    } else {
+                        node.setOuterConstruction(currentConstruction);
+                    }
+                }
+            });
 
             if (currentConstruction == null && !node.getListOfTails().isEmpty()) {
                 final Node myNextNode = node.getListOfTails().get(0);
@@ -340,26 +384,27 @@ public class ConstructionBuilder {
         return null;
     }
 
+    /**
+     * The first node immediately dominated by the given one which is not its tail.
+     */
     @Nullable
     private Node findNextNode(final @NotNull Node node) {
         Node result = null;
 
-        for (int i = 0; i < domi.length; i++) {
-            if (domi[i] == node.getIndex()) {
-                boolean isTail = false;
-                for (final Node tail : node.getListOfTails()) {
-                    if (i == tail.getIndex()) {
-                        isTail = true;
-                        break;
-                    }
-                }
-                if (!isTail) {
-                    if (getRelativeIndex(i) >= 0 && getRelativeIndex(i) < size) {
-                        result = myNodes.get(getRelativeIndex(i));
-                    }
+        for (final int i : gen.getDomiTreeChildren(node.getIndex())) {
+            boolean isTail = false;
+            for (final Node tail : node.getListOfTails()) {
+                if (i == tail.getIndex()) {
+                    isTail = true;
                     break;
                 }
             }
+            if (!isTail) {
+                if (getRelativeIndex(i) >= 0 && getRelativeIndex(i) < size) {
+                    result = myNodes.get(getRelativeIndex(i));
+                }
+                break;
+            }
         }
 
         return result;
@@ -403,8 +448,13 @@ public class ConstructionBuilder {
                         extractNextConstruction(whileConstruction, node);
                     }
 
-                    placeBreakAndContinue(node, whileBody);
-                    removeBreakAndContinueFromLastConstruction(whileConstruction.getBody());
+                    runAfterNextConstruction(new Runnable() {
+                        @Override
+                        public void run() {
+                            placeBreakAndContinue(node, whileBody);
+                            removeBreakAndContinueFromLastConstruction(whileConstruction.getBody());
+                        }
+                    });
 
                     return whileConstruction;
                 }
@@ -537,10 +587,25 @@ public class ConstructionBuilder {
         return index - myNodes.get(0).getIndex();
     }
 
+    /**
+     * The next construction is built by build() after this builder is run.
+     */
     private void extractNextConstruction(final @NotNull Construction construction, final @NotNull Node currentNode) {
         final int leftBound = getRelativeIndex(currentNode.getNextNode());
 
-        construction.setNextConstruction(createConstructionBuilder(myNodes.subList(leftBound, size), gen).build());
+        myConstructionBeforeNext = construction;
+        myNextConstructionBuilder = createConstructionBuilder(myNodes.subList(leftBound, size), gen);
+    }
+
+    /**
+     * Runs the action once the next construction is built, or at once if there is no next construction.
+     */
+    private void runAfterNextConstruction(final @NotNull Runnable action) {
+        if (myNextConstructionBuilder == null) {
+            action.run();
+        } else {
+            myActionsAfterNextConstruction.add(action);
+        }
     }
 
     private void addBreakToAncestors(final @NotNull Node child) {
@@ -9,19 +9,30 @@ import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.Label;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 
+/**
+ * The variables of a next frame are the copies of the variables of the previous frame, but a copy is made
+ * only when the variable is used in the frame, until then its place in the list is empty.
+ * The copies of a variable in the frames are linked in the order of the frames as if they were made at once.
+ */
 public abstract class Frame {
+    private static final int[] NO_VARIABLE_POSITIONS = new int[0];
+
     protected boolean myStackChecked = false;
     protected boolean myHasStack = false;
     protected String myStackedVariableType;
 
-    protected Map<Integer, Integer> myVariableIndexToArrayPosition = new HashMap<Integer, Integer>();
+    // positions of the variables in the list by the variable indices, -1 if there is no variable
+    protected int[] myVariablePositions = NO_VARIABLE_POSITIONS;
     protected List<Variable> myVariables = new ArrayList<Variable>();
 
+    // the frame the variables are copied from
+    protected Frame myPreviousFrame;
+
     protected List<Label> myLabels = new ArrayList<Label>();
 
     protected int myLastMethodParameterIndex = -1;
@@ -40,17 +51,22 @@ public abstract class Frame {
 
     @NotNull
     public List<Variable> getVariables() {
+        for (int pos = 0; pos < myVariables.size(); pos++) {
+            getVariableAt(pos);
+        }
         return myVariables;
     }
 
     public void setVariables(final @NotNull List<Variable> variables) {
+        myVariablePositions = NO_VARIABLE_POSITIONS;
         int pos = 0;
         for (final Variable variable : variables) {
-            myVariableIndexToArrayPosition.put(variable.getIndex(), pos);
+            setVariablePosition(variable.getIndex(), pos);
             pos++;
         }
 
         this.myVariables = variables;
+        this.myPreviousFrame = null;
     }
 
     public void addLabel(final @NotNull Label label) {
@@ -71,8 +87,11 @@ public abstract class Frame {
             myLastCommonVariableIndexInList = lastMethodParameterIndex;
         }
 
+        // the variables not copied yet get it when they are copied
         for (final Variable variable : myVariables) {
-            variable.setIsMethodParameter(variable.getIndex() >= 0 && variable.getIndex() <= myLastMethodParameterIndex);
+            if (variable != null) {
+                variable.setIsMethodParameter(variable.getIndex() >= 0 && variable.getIndex() <= myLastMethodParameterIndex);
+            }
         }
     }
 
@@ -116,7 +135,7 @@ public abstract class Frame {
             final Variable variable = createVariable(index, type, name);
             variable.setIsMethodParameter(index > 0 && index <= myLastMethodParameterIndex);
 
-            myVariableIndexToArrayPosition.put(index, myVariables.size());
+            setVariablePosition(index, myVariables.size());
             myVariables.add(variable);
 
             return variable;
@@ -136,7 +155,7 @@ public abstract class Frame {
     @NotNull
     public Variable getVariable(final int variableIndex) {
         if (containsVariable(variableIndex)) {
-            return myVariables.get(myVariableIndexToArrayPosition.get(variableIndex));
+            return getVariableAt(myVariablePositions[variableIndex]);
         } else {
             return createAndInsertVariable(variableIndex, Type.VOID, "notDefinedVariable");
         }
@@ -150,7 +169,18 @@ public abstract class Frame {
     public Frame createNextFrameWithAbsoluteBound(final int rightBound) {
         final Frame newFrame = createFrame();
 
-        newFrame.setVariables(getVariablesSubList(rightBound));
+        final int actualRightBound = rightBound > myVariables.size() ? myVariables.size() : rightBound;
+        newFrame.myVariables = new ArrayList<Variable>(Collections.<Variable>nCopies(actualRightBound, null));
+        newFrame.myPreviousFrame = this;
+        newFrame.myVariablePositions = Arrays.copyOf(myVariablePositions, myVariablePositions.length);
+        if (actualRightBound < myVariables.size()) {
+            for (int index = 0; index < myVariablePositions.length; index++) {
+                if (myVariablePositions[index] >= actualRightBound) {
+                    newFrame.myVariablePositions[index] = -1;
+                }
+            }
+        }
+
         newFrame.setLastCommonVariableIndexInList(rightBound - 1);
         newFrame.setLastMethodParameterIndex(myLastMethodParameterIndex);
 
@@ -165,26 +195,59 @@ public abstract class Frame {
     @NotNull
     public List<Variable> getMethodParameters(final int startIndex) {
         if (myLastCommonVariableIndexInList != -1) {
-            return myVariables.subList(startIndex, myVariableIndexToArrayPosition.get(myLastMethodParameterIndex) + 1);
+            final int endPos = getVariablePosition(myLastMethodParameterIndex) + 1;
+            for (int pos = startIndex; pos < endPos; pos++) {
+                getVariableAt(pos);
+            }
+            return myVariables.subList(startIndex, endPos);
         } else {
             return new ArrayList<Variable>();
         }
     }
 
+    /**
+     * Copies the variable from the previous frames if it is not copied yet. The previous frames may not have
+     * their copies too, then they are made from the first frame that has one.
+     */
     @NotNull
-    protected List<Variable> getVariablesSubList(final int rightBound) {
-        final List<Variable> result = new ArrayList<Variable>();
-        final int actualRightBound = rightBound > myVariables.size() ? myVariables.size() : rightBound;
+    protected Variable getVariableAt(final int pos) {
+        Variable variable = myVariables.get(pos);
+        if (variable != null) {
+            return variable;
+        }
+
+        final List<Frame> framesWithoutCopy = new ArrayList<Frame>();
+        Frame frame = this;
+        while (variable == null) {
+            framesWithoutCopy.add(frame);
+            frame = frame.myPreviousFrame;
+            variable = frame.myVariables.get(pos);
+        }
 
-        for (final Variable variable : myVariables.subList(0, actualRightBound)) {
-            result.add(variable.createCopy());
+        for (int i = framesWithoutCopy.size() - 1; i >= 0; i--) {
+            frame = framesWithoutCopy.get(i);
+            variable = variable.createCopy();
+            variable.setIsMethodParameter(variable.getIndex() >= 0 && variable.getIndex() <= frame.myLastMethodParameterIndex);
+            frame.myVariables.set(pos, variable);
         }
+        return variable;
+    }
 
-        return result;
+    protected int getVariablePosition(final int index) {
+        return index >= 0 && index < myVariablePositions.length ? myVariablePositions[index] : -1;
+    }
+
+    private void setVariablePosition(final int index, final int pos) {
+        if (index >= myVariablePositions.length) {
+            final int oldLength = myVariablePositions.length;
+            myVariablePositions = Arrays.copyOf(myVariablePositions, Math.max(index + 1, 2 * oldLength));
+            Arrays.fill(myVariablePositions, oldLength, myVariablePositions.length, -1);
+        }
+        myVariablePositions[index] = pos;
     }
 
     protected boolean containsVariable(final int index) {
-        return myVariableIndexToArrayPosition.keySet().contains(index);
+        return getVariablePosition(index) != -1;
     }
 
     @NotNull
@@ -1,15 +1,14 @@
 package com.sdc.languages.general.languageParts;
 
+import com.decompiler.DecompilerSession;
 import com.sdc.ast.expressions.Expression;
 import com.sdc.util.DeclarationWorker;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.util.*;
 
 
 public abstract class GeneralClass {
@@ -49,6 +48,8 @@ public abstract class GeneralClass {
     protected final String myModifier;
     protected final ClassType myType;
     protected final String myName;
+    // the imports of the inner classes of this class contain it
+    private final String myInnerImportPart;
     protected String myFullClassName;
     protected final String myPackage;
 
@@ -63,9 +64,9 @@ public abstract class GeneralClass {
 
     protected final List<Annotation> myAnnotations = new ArrayList<Annotation>();
 
-    protected final List<String> myImports = new ArrayList<String>();
+    protected final Set<String> myImports = new LinkedHashSet<String>();
 
-    protected List<String> myDefaultPackages = new ArrayList<String>();
+    protected Set<String> myDefaultPackages = new HashSet<String>();
 
     protected boolean myIsNormalClass = true;
     protected boolean myIsLambdaFunctionClass = false;
@@ -86,6 +87,8 @@ public abstract class GeneralClass {
     protected final int myTextWidth;
     protected final int myNestSize;
 
+    protected DecompilerSession mySession;
+
     public GeneralClass(final @NotNull String modifier,
                         final @NotNull ClassType type,
                         final @NotNull String name,
@@ -99,6 +102,7 @@ public abstract class GeneralClass {
         this.myModifier = modifier;
         this.myType = type;
         this.myName = name;
+        this.myInnerImportPart = "." + name + ".";
         this.myPackage = packageName;
         this.myImplementedInterfaces = implementedInterfaces;
         this.mySuperClass = superClass;
@@ -110,6 +114,11 @@ public abstract class GeneralClass {
 
     protected abstract String getInheritanceIdentifier();
 
+    /**
+     * Writes the class code to the output as it is laid out, without building the whole text first.
+     */
+    public abstract void print(final @NotNull Appendable output) throws IOException;
+
     @NotNull
     public String getModifier() {
         return myModifier;
@@ -145,7 +154,7 @@ public abstract class GeneralClass {
     }
 
     @NotNull
-    public List<String> getImports() {
+    public Set<String> getImports() {
         return myImports;
     }
 
@@ -177,6 +186,18 @@ public abstract class GeneralClass {
         return myTextWidth;
     }
 
+    /**
+     * Session of the visitor which decompiled the class, its methods are printed with it too.
+     */
+    @NotNull
+    public DecompilerSession getSession() {
+        return mySession;
+    }
+
+    public void setSession(final @NotNull DecompilerSession session) {
+        this.mySession = session;
+    }
+
     @Nullable
     public String getFullClassName() {
         return myFullClassName;
@@ -238,7 +259,7 @@ public abstract class GeneralClass {
         myMethods.add(method);
     }
 
-    public void appendImports(final @NotNull List<String> imports) {
+    public void appendImports(final @NotNull Collection<String> imports) {
         for (final String importName : imports) {
             appendImport(importName);
         }
@@ -246,7 +267,7 @@ public abstract class GeneralClass {
 
     public void appendImport(final @NotNull String importName) {
         if (!hasImport(importName) && !checkImportNameForBeingInPackages(importName, myDefaultPackages)
-                && !importName.contains("." + myName + ".")
+                && !importName.contains(myInnerImportPart)
                 && !importName.contains("..")
                 && !importName.equals(myName)) {
             myImports.add(importName);
@@ -382,6 +403,31 @@ public abstract class GeneralClass {
         return myInnerClassesErrors;
     }
 
+    /**
+     * Whether some methods or nested classes could not be decompiled, their errors are printed instead.
+     */
+    public boolean hasErrors() {
+        if (!myInnerClassesErrors.isEmpty()) {
+            return true;
+        }
+        for (final Method method : myMethods) {
+            if (method.getError() != null) {
+                return true;
+            }
+        }
+        for (final GeneralClass innerClass : myInnerClasses.values()) {
+            if (innerClass.hasErrors()) {
+                return true;
+            }
+        }
+        for (final GeneralClass anonymousClass : myAnonymousClasses.values()) {
+            if (anonymousClass.hasErrors()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @NotNull
     public String decompileClassNameWithOuterClasses(final @NotNull String fullClassName) {
         final String className = DeclarationWorker.decompileClassNameWithOuterClasses(fullClassName);
@@ -392,25 +438,17 @@ public abstract class GeneralClass {
     @NotNull
     public String getDescriptor(final @NotNull String descriptor,
                                 final int pos,
-                                final @NotNull List<String> imports,
+                                final @NotNull Collection<String> imports,
                                 final @NotNull DeclarationWorker.SupportedLanguage language) {
         final String decompiledDescriptor = DeclarationWorker.getDescriptor(descriptor, pos, imports, language);
 
         return removeClassPrefix(decompiledDescriptor);
     }
 
-    protected boolean checkImportNameForBeingInPackage(final @NotNull String importName,
-                                                       final @NotNull String packageName) {
-        return importName.indexOf(packageName) == 0 && importName.lastIndexOf(".") == packageName.length();
-    }
-
     protected boolean checkImportNameForBeingInPackages(final @NotNull String importName,
-                                                        final @NotNull List<String> packageNames) {
-        boolean result = false;
-        for (final String packageName : packageNames) {
-            result |= checkImportNameForBeingInPackage(importName, packageName);
-        }
-        return result;
+                                                        final @NotNull Set<String> packageNames) {
+        final int lastDotPos = importName.lastIndexOf(".");
+        return lastDotPos >= 0 && packageNames.contains(importName.substring(0, lastDotPos));
     }
 
     protected boolean hasImport(final @NotNull String importName) {
@@ -17,10 +17,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.Label;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 
 public abstract class Method {
@@ -30,7 +27,7 @@ public abstract class Method {
     protected final String mySignature;
     protected final String[] myExceptions;
 
-    protected List<String> myImports = new ArrayList<String>();
+    protected final Set<String> myImports = new LinkedHashSet<String>();
 
     protected final GeneralClass myGeneralClass;
     protected final List<String> myGenericTypes;
@@ -41,6 +38,8 @@ public abstract class Method {
     protected Map<String, Integer> myTypeNameIndices = new HashMap<String, Integer>();
 
     protected List<Frame> myFrames = new ArrayList<Frame>();
+    // positions of the frames in the list by their labels
+    protected Map<Label, Integer> myLabelFramePositions = new HashMap<Label, Integer>();
 
     protected int myLastLocalVariableIndex;
 
@@ -113,7 +112,7 @@ public abstract class Method {
     }
 
     @NotNull
-    public List<String> getImports() {
+    public Set<String> getImports() {
         return myImports;
     }
 
@@ -169,6 +168,13 @@ public abstract class Method {
         myFrames.add(frame);
     }
 
+    public void addLabel(final @NotNull Label label) {
+        getCurrentFrame().addLabel(label);
+        if (!myLabelFramePositions.containsKey(label)) {
+            myLabelFramePositions.put(label, myFrames.size() - 1);
+        }
+    }
+
     public void addThisVariable(final @NotNull Type type) {
         getCurrentFrame().createAndInsertVariable(0, type, "this");
     }
@@ -182,20 +188,17 @@ public abstract class Method {
                                                        final @NotNull Constant name,
                                                        final @NotNull Label start,
                                                        final @NotNull Label end) {
-        boolean started = false;
-
-        for (final Frame frame : myFrames) {
-            if (started || frame.hasLabel(start)) {
-                if (!started) {
-                    frame.getVariable(index).cutParent();
-                }
-                frame.updateVariableInformation(index, type, name);
-
-                started = true;
-                if (frame.hasLabel(end)) {
-                    return;
-                }
-            }
+        final Integer startPos = myLabelFramePositions.get(start);
+        if (startPos == null) {
+            return;
+        }
+        // the variable is updated up to the last frame if the end is not after the start
+        final Integer endPos = myLabelFramePositions.get(end);
+        final int lastPos = endPos != null && endPos >= startPos ? endPos : myFrames.size() - 1;
+
+        myFrames.get(startPos).getVariable(index).cutParent();
+        for (int pos = startPos; pos <= lastPos; pos++) {
+            myFrames.get(pos).updateVariableInformation(index, type, name);
         }
     }
 
@@ -203,11 +206,10 @@ public abstract class Method {
                                                 final @NotNull Constant name,
                                                 final @NotNull Label start,
                                                 final @NotNull Label end) {
-        for (final Frame frame : myFrames) {
-            if (frame.hasLabel(start)) {
-                Variable variable = frame.getVariable(index);
-                updateVariableInformationFromDebugInfo(index, variable.getType(), name, start, end);
-            }
+        final Integer startPos = myLabelFramePositions.get(start);
+        if (startPos != null) {
+            final Variable variable = myFrames.get(startPos).getVariable(index);
+            updateVariableInformationFromDebugInfo(index, variable.getType(), name, start, end);
         }
     }
 
@@ -14,6 +14,8 @@ import com.sdc.cfg.constructions.When
 import com.sdc.cfg.constructions.Switch
 import com.sdc.cfg.constructions.SwitchCase
 
+import java.util.ArrayList
+
 
 abstract class ConstructionPrinter(expressionPrinter : ExpressionPrinter, statementPrinter : StatementPrinter) {
     val myExpressionPrinter : ExpressionPrinter = expressionPrinter
@@ -25,43 +27,58 @@ abstract class ConstructionPrinter(expressionPrinter : ExpressionPrinter, statem
     open fun printConstruction(construction: Construction?, nestSize: Int): PrimeDoc =
         (if (construction !is ElementaryBlock && construction !is SwitchCase) line() else nil()) + printConstructionOnCurrentLine(construction, nestSize)
 
+    // The chain of next constructions is walked in a loop and joined by spread, so long methods do not overflow the stack
     open fun printConstructionOnCurrentLine(construction: Construction?, nestSize: Int): PrimeDoc {
         if (construction == null)
             return nil()
         else {
-            val breakCode =
-                    if (construction.hasBreak())
-                        line() + text("break") + (if (construction.hasBreakToLabel()) text(" " + construction.getBreak()) else nil()) + myStatementPrinter.printStatementsDelimiter()
-                    else
-                        nil()
-
-            val continueCode =
-                    if (construction.hasContinue())
-                        line() + text("continue") + (if (construction.hasContinueToLabel()) text(" " + construction.getContinue()) else nil()) + myStatementPrinter.printStatementsDelimiter()
-                    else
-                        nil()
-
-            val mainCode =
-                    when (construction) {
-                        is ElementaryBlock -> printElementaryBlock(construction, nestSize)
-                        is ConditionalBlock -> printConditionalBlock(construction, nestSize)
-                        is While -> printWhile(construction, nestSize)
-                        is DoWhile -> printDoWhile(construction, nestSize)
-                        is For -> printFor(construction, nestSize)
-                        is ForEach -> printForEach(construction, nestSize)
-                        is TryCatch -> printTryCatch(construction, nestSize)
-                        is SwitchCase -> printSwitchCase(construction, nestSize)
-                        is Switch -> printSwitch(construction, nestSize)
-                        is When -> printWhen(construction, nestSize)
-                        else -> throw IllegalArgumentException("Unknown Construction implementer!")
-                    }
-
-            val nextConstructionCode = if (construction.hasNextConstruction()) printConstruction(construction.getNextConstruction(), nestSize) else nil()
-
-            return mainCode + breakCode + continueCode + nextConstructionCode
+            val docs = ArrayList<PrimeDoc>()
+            var currentConstruction : Construction = construction
+            docs.add(printSingleConstruction(currentConstruction, nestSize))
+            while (currentConstruction.hasNextConstruction()) {
+                val nextConstruction = currentConstruction.getNextConstruction()
+                if (nextConstruction !is ElementaryBlock && nextConstruction !is SwitchCase)
+                    docs.add(line())
+                if (nextConstruction == null)
+                    break
+                docs.add(printSingleConstruction(nextConstruction, nestSize))
+                currentConstruction = nextConstruction
+            }
+            return spread(docs)
         }
     }
 
+    open fun printSingleConstruction(construction: Construction, nestSize: Int): PrimeDoc {
+        val breakCode =
+                if (construction.hasBreak())
+                    line() + text("break") + (if (construction.hasBreakToLabel()) text(" " + construction.getBreak()) else nil()) + myStatementPrinter.printStatementsDelimiter()
+                else
+                    nil()
+
+        val continueCode =
+                if (construction.hasContinue())
+                    line() + text("continue") + (if (construction.hasContinueToLabel()) text(" " + construction.getContinue()) else nil()) + myStatementPrinter.printStatementsDelimiter()
+                else
+                    nil()
+
+        val mainCode =
+                when (construction) {
+                    is ElementaryBlock -> printElementaryBlock(construction, nestSize)
+                    is ConditionalBlock -> printConditionalBlock(construction, nestSize)
+                    is While -> printWhile(construction, nestSize)
+                    is DoWhile -> printDoWhile(construction, nestSize)
+                    is For -> printFor(construction, nestSize)
+                    is ForEach -> printForEach(construction, nestSize)
+                    is TryCatch -> printTryCatch(construction, nestSize)
+                    is SwitchCase -> printSwitchCase(construction, nestSize)
+                    is Switch -> printSwitch(construction, nestSize)
+                    is When -> printWhen(construction, nestSize)
+                    else -> throw IllegalArgumentException("Unknown Construction implementer!")
+                }
+
+        return mainCode + breakCode + continueCode
+    }
+
     open fun printElementaryBlock(elementaryBlock: ElementaryBlock, nestSize: Int): PrimeDoc =
         myStatementPrinter.printStatements(elementaryBlock.getStatements(), nestSize)
 
@@ -6,15 +6,11 @@ import org.jetbrains.annotations.NotNull;
 
 import static com.sdc.ast.ExpressionType.*;
 
-
+/**
+ * Views of the operations of a language. Operation printers have no state, so every language
+ * has a single instance shared by all decompilations, see e.g. JavaOperationPrinter.getInstance().
+ */
 public abstract class OperationPrinter {
-    protected static OperationPrinter ourInstance;
-
-    @NotNull
-    public static OperationPrinter getInstance() {
-        return ourInstance;
-    }
-
     protected OperationPrinter() {
     }
 
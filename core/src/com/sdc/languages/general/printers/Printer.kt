@@ -10,6 +10,11 @@ import com.sdc.languages.general.languageParts.Annotation
 
 import com.sdc.ast.expressions.identifiers.Variable
 
+import com.sdc.util.ParallelTasks
+
+import java.util.ArrayList
+import java.util.concurrent.Callable
+
 
 abstract class Printer {
     val myExpressionPrinter : ExpressionPrinter = createExpressionPrinter()
@@ -44,18 +49,20 @@ abstract class Printer {
     open fun printPackageAndImports(decompiledClass: GeneralClass?): PrimeDoc =
         if (!decompiledClass!!.isNestedClass()) {
             val packageCode = text("package " + decompiledClass.getPackage() + ";") + line()
-            var imports = group(nil())
+            // not grouped, so every import is on its own line in any layout
+            var imports : PrimeDoc = nil()
             for (importName in decompiledClass.getImports().toList())
-                imports = group(imports + text("import " + importName + ";") + line())
+                imports = imports + text("import " + importName + ";") + line()
             packageCode / imports
         } else {
             nil()
         }
 
+    // Every annotation is followed by a hard line, the annotations of parameters are grouped by their caller
     open fun printAnnotations(annotations: List<Annotation>): PrimeDoc {
-        var annotationsCode = group(nil())
+        var annotationsCode : PrimeDoc = nil()
         for (annotation in annotations)
-            annotationsCode = group(annotationsCode + printAnnotation(annotation) + line())
+            annotationsCode = annotationsCode + printAnnotation(annotation) + line()
         return annotationsCode
     }
 
@@ -107,7 +114,7 @@ abstract class Printer {
                     }
 
                 if (method.checkParameterForAnnotation(index))
-                    arguments = arguments + printAnnotations(method.getParameterAnnotations(index)!!.toList()) + variableName
+                    arguments = arguments + group(printAnnotations(method.getParameterAnnotations(index)!!.toList())) + variableName
                 else
                     arguments = arguments + variableName
 
@@ -157,6 +164,18 @@ abstract class Printer {
         return generics
     }
 
+    /***
+     * Methods are printed independently, in parallel if there is the method executor in the session of the class
+     */
+    open fun printMethods(decompiledClass: GeneralClass): List<PrimeDoc> {
+        val tasks = ArrayList<Callable<PrimeDoc>>()
+        for (method in decompiledClass.getMethods().toList())
+            tasks.add(object : Callable<PrimeDoc> {
+                override fun call(): PrimeDoc = printMethod(method)
+            })
+        return ParallelTasks.invokeAll(decompiledClass.getSession().getMethodExecutor(), tasks).toList()
+    }
+
     open fun printClasses(decompiledClasses: List<GeneralClass>?): PrimeDoc {
         var innerClassesCode: PrimeDoc = nil()
         for (innerClass in decompiledClasses!!.toList()) {
@@ -1,18 +1,20 @@
 package com.sdc.languages.general.visitors;
 
+import com.decompiler.ClassSource;
+import com.decompiler.DecompilerSession;
+import com.decompiler.DecompilerStatistics;
 import com.sdc.ast.Type;
 import com.sdc.languages.general.languageParts.*;
 import com.sdc.util.DeclarationWorker;
+import com.sdc.util.ParallelTasks;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.*;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.*;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.concurrent.Callable;
 
 import static com.sdc.languages.general.languageParts.GeneralClass.ClassType.*;
 import static org.objectweb.asm.Opcodes.ASM4;
@@ -27,7 +29,8 @@ public abstract class GeneralClassVisitor extends ClassVisitor {
     protected boolean myIsLambdaFunction = false;
     protected boolean myIsNestedClass = false;
 
-    protected String myClassFilesJarPath = "";
+    protected DecompilerSession mySession = new DecompilerSession();
+    protected ClassSource myClassSource = ClassSource.CLASS_PATH;
 
     protected LanguagePartFactory myLanguagePartFactory;
     protected GeneralVisitorFactory myVisitorFactory;
@@ -36,6 +39,8 @@ public abstract class GeneralClassVisitor extends ClassVisitor {
 
     protected Set<String> myVisitedClasses = new HashSet<String>();
 
+    private final List<MethodVisitorStub> myDeferredMethodVisitors = new ArrayList<MethodVisitorStub>();
+
     public GeneralClassVisitor(final int textWidth, final int nestSize) {
         super(ASM4);
         this.myTextWidth = textWidth;
@@ -52,7 +57,35 @@ public abstract class GeneralClassVisitor extends ClassVisitor {
 
     @NotNull
     public String getDecompiledCode() {
-        return myDecompiledClass.toString();
+        final DecompilerStatistics statistics = mySession.getStatistics();
+        if (statistics == null) {
+            return myDecompiledClass.toString();
+        }
+
+        final DecompilerStatistics.Measurement measurement = statistics.startMeasurement();
+        final String decompiledCode = myDecompiledClass.toString();
+        measurement.finishPhase(DecompilerStatistics.Phase.PRINTING);
+        statistics.addClassStatistics(myDecompiledClass.getFullClassName(), decompiledCode.length(), measurement);
+
+        return decompiledCode;
+    }
+
+    public void writeDecompiledCode(final @NotNull Appendable output) throws IOException {
+        final DecompilerStatistics statistics = mySession.getStatistics();
+        if (statistics == null) {
+            myDecompiledClass.print(output);
+            return;
+        }
+
+        final DecompilerStatistics.Measurement measurement = statistics.startMeasurement();
+        final CountingAppendable countingOutput = new CountingAppendable(output);
+        myDecompiledClass.print(countingOutput);
+        measurement.finishPhase(DecompilerStatistics.Phase.PRINTING);
+        statistics.addClassStatistics(myDecompiledClass.getFullClassName(), countingOutput.getCount(), measurement);
+    }
+
+    public boolean hasErrors() {
+        return myDecompiledClass != null && myDecompiledClass.hasErrors();
     }
 
     @Nullable
@@ -72,8 +105,12 @@ public abstract class GeneralClassVisitor extends ClassVisitor {
         this.myVisitedClasses = visitedClasses;
     }
 
-    public void setClassFilesJarPath(final @NotNull String classFilesJarPath) {
-        this.myClassFilesJarPath = classFilesJarPath;
+    public void setSession(final @NotNull DecompilerSession session) {
+        this.mySession = session;
+    }
+
+    public void setClassSource(final @NotNull ClassSource classSource) {
+        this.myClassSource = classSource;
     }
 
     public void setOuterClass(final @NotNull GeneralClass outerClass) {
@@ -147,6 +184,7 @@ public abstract class GeneralClassVisitor extends ClassVisitor {
         myDecompiledClass = myLanguagePartFactory.createClass(modifier, type, className, packageName.toString()
                 , implementedInterfaces, superClass, genericTypesList, genericIdentifiersList, myTextWidth, myNestSize);
 
+        myDecompiledClass.setSession(mySession);
         myDecompiledClass.setIsLambdaFunctionClass(myIsLambdaFunction);
         myDecompiledClass.setIsNestedClass(myIsNestedClass);
         myDecompiledClass.setFullClassName(DeclarationWorker.decompileFullClassName(name));
@@ -201,11 +239,12 @@ public abstract class GeneralClassVisitor extends ClassVisitor {
                 final GeneralClassVisitor cv = myVisitorFactory.createClassVisitor(myDecompiledClass.getTextWidth()
                         , myDecompiledClass.getNestSize());
                 cv.setVisitedClasses(myVisitedClasses);
-                cv.setClassFilesJarPath(myClassFilesJarPath);
+                cv.setSession(mySession);
+                cv.setClassSource(myClassSource);
                 cv.setOuterClass(myDecompiledClass);
                 cv.setIsNestedClass(true);
 
-                final ClassReader cr = getInnerClassClassReader(myClassFilesJarPath, name);
+                final ClassReader cr = myClassSource.getClassReader(name);
                 cr.accept(cv, 0);
 
                 final GeneralClass decompiledClass = cv.getDecompiledClass();
@@ -298,7 +337,7 @@ public abstract class GeneralClassVisitor extends ClassVisitor {
         final int startIndex = getStartIndexForParameters(method);
 
         if (myDecompiledClass.isNormalClass() && !modifier.contains("static")) {
-            method.addThisVariable(new Type(getDescriptor("L" + myDecompiledClass.getName() + ";", 0, new ArrayList<String>())));
+            method.addThisVariable(Type.valueOf(getDescriptor("L" + myDecompiledClass.getName() + ";", 0, new ArrayList<String>())));
             method.declareThisVariable();
         }
 
@@ -308,18 +347,43 @@ public abstract class GeneralClassVisitor extends ClassVisitor {
 
         final GeneralMethodVisitor methodVisitor = myVisitorFactory.createMethodVisitor(method
                 , myDecompiledClass.getFullClassName(), myDecompiledClass.getSuperClass());
-        methodVisitor.setClassFilesJarPath(myClassFilesJarPath);
-
-        return new MethodVisitorStub(methodVisitor);
+        methodVisitor.setSession(mySession);
+        methodVisitor.setClassSource(myClassSource);
+        methodVisitor.setMethodKey(myDecompiledClass.getFullClassName() + "." + name + desc);
+
+        final MethodVisitorStub methodVisitorStub = new MethodVisitorStub(methodVisitor);
+        if (mySession.getMethodExecutor() != null) {
+            methodVisitor.setIsAnalysisDeferred(true);
+            myDeferredMethodVisitors.add(methodVisitorStub);
+        }
+        return methodVisitorStub;
     }
 
     @Override
     public void visitEnd() {
+        analyzeDeferredMethods();
+
         for (final Method method : myDecompiledClass.getMethods()) {
             myDecompiledClass.appendImports(method.getImports());
         }
     }
 
+    private void analyzeDeferredMethods() {
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(myDeferredMethodVisitors.size());
+        for (final MethodVisitorStub methodVisitor : myDeferredMethodVisitors) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    methodVisitor.analyze();
+                    return null;
+                }
+            });
+        }
+        myDeferredMethodVisitors.clear();
+
+        ParallelTasks.invokeAll(mySession.getMethodExecutor(), tasks);
+    }
+
     protected int getStartIndexForParameters(final @NotNull Method method) {
         return myDecompiledClass.isNormalClass() && !method.getModifier().contains("static") ? 1 : 0;
     }
@@ -330,36 +394,41 @@ public abstract class GeneralClassVisitor extends ClassVisitor {
     }
 
     @NotNull
-    protected String getDescriptor(final @NotNull String descriptor, final int pos, final @NotNull List<String> imports) {
+    protected String getDescriptor(final @NotNull String descriptor, final int pos, final @NotNull Collection<String> imports) {
         return myDecompiledClass.getDescriptor(descriptor, pos, imports, myLanguage);
     }
 
-    @NotNull
-    public static ClassReader getInnerClassClassReader(final @NotNull String jarPath,
-                                                       final @NotNull String fullClassName) throws IOException {
-        if (jarPath.isEmpty()) {
-            return new ClassReader(fullClassName);
-        } else {
-            return new ClassReader(getInnerClassInputStreamFromJarFile(jarPath, fullClassName));
+    private static class CountingAppendable implements Appendable {
+        private final Appendable myOutput;
+        private long myCount = 0;
+
+        public CountingAppendable(final @NotNull Appendable output) {
+            this.myOutput = output;
         }
-    }
 
-    @Nullable
-    private static InputStream getInnerClassInputStreamFromJarFile(final @NotNull String jarPath,
-                                                                   final @NotNull String fullClassName) throws IOException {
-        final JarFile jarFile = new JarFile(jarPath);
-        final Enumeration<JarEntry> jarFileEntries = jarFile.entries();
-
-        InputStream is = null;
-        while (jarFileEntries.hasMoreElements()) {
-            final JarEntry file = jarFileEntries.nextElement();
-            final String insideJarClassName = file.getName();
-
-            if (insideJarClassName.equals(fullClassName + ".class")) {
-                is = jarFile.getInputStream(file);
-            }
+        @Override
+        public Appendable append(final CharSequence csq) throws IOException {
+            myCount += csq == null ? "null".length() : csq.length();
+            myOutput.append(csq);
+            return this;
+        }
+
+        @Override
+        public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+            myCount += end - start;
+            myOutput.append(csq, start, end);
+            return this;
         }
 
-        return is;
+        @Override
+        public Appendable append(final char c) throws IOException {
+            myCount++;
+            myOutput.append(c);
+            return this;
+        }
+
+        public long getCount() {
+            return myCount;
+        }
     }
 }
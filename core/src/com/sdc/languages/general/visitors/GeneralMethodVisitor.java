@@ -1,6 +1,8 @@
 package com.sdc.languages.general.visitors;
 
-import com.decompiler.Settings;
+import com.decompiler.ClassSource;
+import com.decompiler.DecompilerSession;
+import com.decompiler.DecompilerStatistics;
 import com.sdc.ast.ExpressionType;
 import com.sdc.ast.Type;
 import com.sdc.ast.controlflow.*;
@@ -12,6 +14,7 @@ import com.sdc.ast.expressions.identifiers.Field;
 import com.sdc.ast.expressions.identifiers.Identifier;
 import com.sdc.ast.expressions.identifiers.Variable;
 
+import com.sdc.cfg.ControlFlowGraph;
 import com.sdc.cfg.nodes.DoWhile;
 import com.sdc.cfg.nodes.Node;
 import com.sdc.cfg.nodes.Switch;
@@ -29,7 +32,6 @@ import com.sdc.util.graph.GraphDrawer;
 
 import org.jetbrains.annotations.NotNull;
 import org.objectweb.asm.*;
-import org.objectweb.asm.util.Printer;
 
 import java.util.*;
 
@@ -48,14 +50,20 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
     protected final List<Statement> myStatements = new ArrayList<Statement>();
 
     protected final List<Node> myNodes = new ArrayList<Node>();
-    protected final List<Label> myLabels = new ArrayList<Label>();
+    protected final Set<Label> myLabels = new HashSet<Label>();
     protected final Map<Label, List<Integer>> myGoToMap = new HashMap<Label, List<Integer>>();  // for GOTO
     protected final Map<Integer, Label> myIfElseMap = new HashMap<Integer, Label>(); // for IF ELSE Branch
     protected final List<Label> myNodeInnerLabels = new ArrayList<Label>();
+    protected final Map<Label, Node> myLabelNodes = new HashMap<Label, Node>(); // node which contains the label
 
     protected boolean myHasDebugInformation = false;
 
-    protected String myClassFilesJarPath = "";
+    protected DecompilerSession mySession = new DecompilerSession();
+    protected ClassSource myClassSource = ClassSource.CLASS_PATH;
+    protected String myMethodKey;
+    protected boolean myIsAnalysisDeferred = false;
+
+    protected DecompilerStatistics.Measurement myMeasurement;
 
     protected LanguagePartFactory myLanguagePartFactory;
     protected GeneralVisitorFactory myVisitorFactory;
@@ -83,8 +91,32 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
         return myDecompiledMethod;
     }
 
-    public void setClassFilesJarPath(final @NotNull String classFilesJarPath) {
-        this.myClassFilesJarPath = classFilesJarPath;
+    /**
+     * The phases of the method are measured from here if the session collects the statistics.
+     */
+    public void setSession(final @NotNull DecompilerSession session) {
+        this.mySession = session;
+
+        final DecompilerStatistics statistics = session.getStatistics();
+        this.myMeasurement = statistics == null ? null : statistics.startMeasurement();
+    }
+
+    public void setClassSource(final @NotNull ClassSource classSource) {
+        this.myClassSource = classSource;
+    }
+
+    /**
+     * Identifies the method among the methods of all decompiled classes: owner, name and descriptor.
+     */
+    public void setMethodKey(final @NotNull String methodKey) {
+        this.myMethodKey = methodKey;
+    }
+
+    /**
+     * visitEnd only finishes the visiting, the class visitor calls {@link #analyze()} later, maybe in another thread.
+     */
+    public void setIsAnalysisDeferred(final boolean isAnalysisDeferred) {
+        this.myIsAnalysisDeferred = isAnalysisDeferred;
     }
 
     @NotNull
@@ -178,261 +210,287 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
     public void visitInsn(final int opcode) {
         int size = myBodyStack.size();
 
-        final String opString = Printer.OPCODES[opcode];
-
-        if (opString.contains("ADD") || opString.contains("SUB")
-                || opString.contains("MUL") || opString.contains("DIV") || opString.contains("REM")
-                || opString.contains("USHR") || opString.contains("SHL")
-                || opString.contains("XOR") || opString.contains("SHR")
-                || opString.contains("IOR") || opString.contains("LOR") || opString.contains("AND")) {
-            final Expression e1 = getTopOfBodyStack();
-            final Expression e2 = getTopOfBodyStack();
+        switch (OpcodeTable.getOperation(opcode)) {
+            case BINARY: {
+                final Expression e1 = getTopOfBodyStack();
+                final Expression e2 = getTopOfBodyStack();
 
-            String type = opString.substring(1);
-            if (opString.contains("OR") || opString.contains("AND")) {
-                type = "BITWISE_" + type;
+                myBodyStack.push(new BinaryExpression(OpcodeTable.getExpressionType(opcode), e2, e1));
+                break;
             }
-
-            myBodyStack.push(new BinaryExpression(ExpressionType.valueOf(type), e2, e1));
-        } else if (opString.contains("NEG")) {
-            final Expression e = getTopOfBodyStack();
-            myBodyStack.push(new UnaryExpression(NEGATE, e));
-        } else if (opString.contains("CONST_M1")) {
-            myBodyStack.push(M_ONE);
-        } else if (opString.contains("CONST_NULL")) {
-            myBodyStack.push(Constant.NULL);
-        } else if (opString.contains("CONST_")) {
-            if (opString.contains("ICONST_")) {
-                myBodyStack.push(new IntConstant(Integer.valueOf(opString.substring(7).toLowerCase())));
-            } else {
-                final String descriptor = getDescriptor(opString, 0, myDecompiledMethod.getImports());
-                myBodyStack.push(new Constant(opString.substring(7).toLowerCase(), false, new Type(descriptor)));
+            case NEGATE: {
+                final Expression e = getTopOfBodyStack();
+                myBodyStack.push(new UnaryExpression(NEGATE, e));
+                break;
             }
-        } else if (opString.equals("RETURN")) {
-            replaceInvocationsFromExpressionsToStatements();
-
-            final Return returnStatement = new Return();
-            returnStatement.setNeedToPrintReturn(!myDecompiledMethod.getDecompiledClass().isLambdaFunctionClass());
-
-            myStatements.add(returnStatement);
-        } else if (opString.contains("RETURN")) {
-            final Expression expression = replaceBooleanConstant(getTopOfBodyStack());
-            replaceInvocationsFromExpressionsToStatements();
-
-            final Return returnStatement = new Return(expression);
-            returnStatement.setNeedToPrintReturn(!myDecompiledMethod.getDecompiledClass().isLambdaFunctionClass());
-
-            myStatements.add(returnStatement);
-        } else if (opString.contains("CMP")) {
-            final Expression b = getTopOfBodyStack();
-            final Expression a = getTopOfBodyStack();
-            myBodyStack.push(new TernaryExpression(new BinaryExpression(EQ, a, b)
-                    , ZERO, new TernaryExpression(new BinaryExpression(LT, a, b), M_ONE, ONE)));
-        } else if (opString.contains("ATHROW")) {
-            myStatements.add(new Throw(getTopOfBodyStack()));
-        } else if (opString.equals("SWAP")) {
-            if (size < 2) {
-                return;
+            case CONST_M1:
+                myBodyStack.push(M_ONE);
+                break;
+            case CONST_NULL:
+                myBodyStack.push(Constant.NULL);
+                break;
+            case INT_CONST:
+                myBodyStack.push(new IntConstant(opcode - Opcodes.ICONST_0));
+                break;
+            case CONST: {
+                final String descriptor = getDescriptor(OpcodeTable.getOperandDescriptor(opcode), 0, myDecompiledMethod.getImports());
+                myBodyStack.push(new Constant(OpcodeTable.getConstantValue(opcode), false, Type.valueOf(descriptor)));
+                break;
             }
+            case RETURN: {
+                replaceInvocationsFromExpressionsToStatements();
 
-            final Expression expr1 = myBodyStack.pop();
-            final Expression expr2 = myBodyStack.pop();
+                final Return returnStatement = new Return();
+                returnStatement.setNeedToPrintReturn(!myDecompiledMethod.getDecompiledClass().isLambdaFunctionClass());
 
-            if (expr1.hasDoubleLength() || expr2.hasDoubleLength()) {
-                //There is a wrong condition, we return elements of stack as they were there
-                multiPush(expr2, expr1);
-            } else {
-                multiPush(expr1, expr2);
-            }
-        } else if (opString.equals("DUP") && !myBodyStack.isEmpty()) {
-            final Expression expr = myBodyStack.peek();
-
-            if (expr.hasDoubleLength()) {
-                return;
+                myStatements.add(returnStatement);
+                break;
             }
+            case RETURN_VALUE: {
+                final Expression expression = replaceBooleanConstant(getTopOfBodyStack());
+                replaceInvocationsFromExpressionsToStatements();
 
-            myBodyStack.push(expr);
-        } else if (opString.equals("DUP_X1")) {
-            if (size < 2) {
-                return;
-            }
+                final Return returnStatement = new Return(expression);
+                returnStatement.setNeedToPrintReturn(!myDecompiledMethod.getDecompiledClass().isLambdaFunctionClass());
 
-            final Expression expr1 = myBodyStack.pop();
-            final Expression expr2 = myBodyStack.pop();
-            if (expr1.hasDoubleLength() || expr2.hasDoubleLength()) {
-                //There is a wrong condition, we return elements of stack as they were there
-                multiPush(expr2, expr1);
-                return;
+                myStatements.add(returnStatement);
+                break;
             }
-            multiPush(expr1, expr2, expr1);
-        } else if (opString.equals("DUP_X2")) {
-            if (size < 2) {
-                return;
+            case COMPARE: {
+                final Expression b = getTopOfBodyStack();
+                final Expression a = getTopOfBodyStack();
+                myBodyStack.push(new TernaryExpression(new BinaryExpression(EQ, a, b)
+                        , ZERO, new TernaryExpression(new BinaryExpression(LT, a, b), M_ONE, ONE)));
+                break;
             }
+            case THROW:
+                myStatements.add(new Throw(getTopOfBodyStack()));
+                break;
+            case SWAP: {
+                if (size < 2) {
+                    return;
+                }
 
-            final Expression expr1 = myBodyStack.pop();
-            final Expression expr2 = myBodyStack.pop();
-            if (expr1.hasDoubleLength()) {
-                //There is a wrong condition, we return elements of stack as they were there
-                multiPush(expr2, expr1);
-                return;
-            }
-            if (expr2.hasDoubleLength()) {
-                //Form 2
-                multiPush(expr1, expr2, expr1);
-            } else {
-                if (size < 3 || myBodyStack.peek().hasDoubleLength()) {
+                final Expression expr1 = myBodyStack.pop();
+                final Expression expr2 = myBodyStack.pop();
+
+                if (expr1.hasDoubleLength() || expr2.hasDoubleLength()) {
                     //There is a wrong condition, we return elements of stack as they were there
                     multiPush(expr2, expr1);
-                    return;
+                } else {
+                    multiPush(expr1, expr2);
                 }
-                final Expression expr3 = myBodyStack.pop();
-                //Form 1
-                multiPush(expr1, expr3, expr2, expr1);
-            }
-        } else if (opString.equals("DUP2")) {
-            if (size < 1) {
-                return;
+                break;
             }
+            case DUP: {
+                if (myBodyStack.isEmpty()) {
+                    break;
+                }
 
-            final Expression expr1 = myBodyStack.pop();
-            if (expr1.hasDoubleLength()) {
-                //Form 2
-                multiPush(expr1, expr1);
-            } else {
-                if (size < 2 || myBodyStack.peek().hasDoubleLength()) {
-                    //There is a wrong condition, we return elements of stack as they were there
-                    multiPush(expr1);
+                final Expression expr = myBodyStack.peek();
+
+                if (expr.hasDoubleLength()) {
                     return;
                 }
-                final Expression expr2 = myBodyStack.pop();
-                //Form 1
-                multiPush(expr2, expr1, expr2, expr1);
-            }
-        } else if (opString.equals("DUP2_X1")) {
-            if (size < 2) {
-                return;
+
+                myBodyStack.push(expr);
+                break;
             }
+            case DUP_X1: {
+                if (size < 2) {
+                    return;
+                }
 
-            final Expression expr1 = myBodyStack.pop();
-            final Expression expr2 = myBodyStack.pop();
-            if (expr1.hasDoubleLength() && !expr2.hasDoubleLength()) {
-                //Form 2
-                multiPush(expr1, expr2, expr1);
-            } else {
-                if (size < 3 || myBodyStack.peek().hasDoubleLength()
-                        || expr1.hasDoubleLength() || expr2.hasDoubleLength()) {
+                final Expression expr1 = myBodyStack.pop();
+                final Expression expr2 = myBodyStack.pop();
+                if (expr1.hasDoubleLength() || expr2.hasDoubleLength()) {
                     //There is a wrong condition, we return elements of stack as they were there
                     multiPush(expr2, expr1);
                     return;
                 }
-                final Expression expr3 = myBodyStack.pop();
-                //Form 1
-                multiPush(expr2, expr1, expr3, expr2, expr1);
-            }
-        } else if (opString.equals("DUP2_X2")) {
-            if (size < 2) {
-                return;
+                multiPush(expr1, expr2, expr1);
+                break;
             }
+            case DUP_X2: {
+                if (size < 2) {
+                    return;
+                }
 
-            final Expression expr1 = myBodyStack.pop();
-            final Expression expr2 = myBodyStack.pop();
-            if (!expr1.hasDoubleLength() && !expr2.hasDoubleLength()) {
-                if (size < 3) {
+                final Expression expr1 = myBodyStack.pop();
+                final Expression expr2 = myBodyStack.pop();
+                if (expr1.hasDoubleLength()) {
                     //There is a wrong condition, we return elements of stack as they were there
                     multiPush(expr2, expr1);
                     return;
                 }
-                final Expression expr3 = myBodyStack.pop();
-                if (expr3.hasDoubleLength()) {
-                    //Form 3
-                    multiPush(expr2, expr1, expr3, expr2, expr1);
-                    return;
+                if (expr2.hasDoubleLength()) {
+                    //Form 2
+                    multiPush(expr1, expr2, expr1);
+                } else {
+                    if (size < 3 || myBodyStack.peek().hasDoubleLength()) {
+                        //There is a wrong condition, we return elements of stack as they were there
+                        multiPush(expr2, expr1);
+                        return;
+                    }
+                    final Expression expr3 = myBodyStack.pop();
+                    //Form 1
+                    multiPush(expr1, expr3, expr2, expr1);
                 }
-                if (size < 4 || myBodyStack.peek().hasDoubleLength()) {
-                    //There is a wrong condition, we return elements of stack as they were there
-                    multiPush(expr3, expr2, expr1);
+                break;
+            }
+            case DUP2: {
+                if (size < 1) {
                     return;
                 }
-                final Expression expr4 = myBodyStack.pop();
-                //Form 1
-                multiPush(expr2, expr1, expr4, expr3, expr2, expr1);
-            } else if (expr1.hasDoubleLength() && !expr2.hasDoubleLength()) {
-                if (size < 3 || myBodyStack.peek().hasDoubleLength()) {
-                    //There is a wrong condition, we return elements of stack as they were there
-                    multiPush(expr2, expr1);
-                    return;
+
+                final Expression expr1 = myBodyStack.pop();
+                if (expr1.hasDoubleLength()) {
+                    //Form 2
+                    multiPush(expr1, expr1);
+                } else {
+                    if (size < 2 || myBodyStack.peek().hasDoubleLength()) {
+                        //There is a wrong condition, we return elements of stack as they were there
+                        multiPush(expr1);
+                        return;
+                    }
+                    final Expression expr2 = myBodyStack.pop();
+                    //Form 1
+                    multiPush(expr2, expr1, expr2, expr1);
                 }
-                final Expression expr3 = myBodyStack.pop();
-                //Form 2
-                multiPush(expr1, expr3, expr2, expr1);
-            } else if (expr1.hasDoubleLength() && expr2.hasDoubleLength()) {
-                //Form 4
-                multiPush(expr1, expr2, expr1);
-            }
-        } else if (opString.equals("POP")) {
-            if (size < 1 || myBodyStack.peek().hasDoubleLength()) {
-                return;
+                break;
             }
+            case DUP2_X1: {
+                if (size < 2) {
+                    return;
+                }
 
-            if (myBodyStack.peek() instanceof Invocation) {
-                myStatements.add(convertInvocationFromExpressionToStatement((Invocation) myBodyStack.pop()));
-            } else if (myBodyStack.peek() instanceof New) {
-                myStatements.add(new com.sdc.ast.controlflow.New((New) myBodyStack.pop()));
-            } else {
-                myBodyStack.pop();
+                final Expression expr1 = myBodyStack.pop();
+                final Expression expr2 = myBodyStack.pop();
+                if (expr1.hasDoubleLength() && !expr2.hasDoubleLength()) {
+                    //Form 2
+                    multiPush(expr1, expr2, expr1);
+                } else {
+                    if (size < 3 || myBodyStack.peek().hasDoubleLength()
+                            || expr1.hasDoubleLength() || expr2.hasDoubleLength()) {
+                        //There is a wrong condition, we return elements of stack as they were there
+                        multiPush(expr2, expr1);
+                        return;
+                    }
+                    final Expression expr3 = myBodyStack.pop();
+                    //Form 1
+                    multiPush(expr2, expr1, expr3, expr2, expr1);
+                }
+                break;
             }
-        } else if (opString.equals("POP2")) {
-            if (size < 1) {
-                return;
+            case DUP2_X2: {
+                if (size < 2) {
+                    return;
+                }
+
+                final Expression expr1 = myBodyStack.pop();
+                final Expression expr2 = myBodyStack.pop();
+                if (!expr1.hasDoubleLength() && !expr2.hasDoubleLength()) {
+                    if (size < 3) {
+                        //There is a wrong condition, we return elements of stack as they were there
+                        multiPush(expr2, expr1);
+                        return;
+                    }
+                    final Expression expr3 = myBodyStack.pop();
+                    if (expr3.hasDoubleLength()) {
+                        //Form 3
+                        multiPush(expr2, expr1, expr3, expr2, expr1);
+                        return;
+                    }
+                    if (size < 4 || myBodyStack.peek().hasDoubleLength()) {
+                        //There is a wrong condition, we return elements of stack as they were there
+                        multiPush(expr3, expr2, expr1);
+                        return;
+                    }
+                    final Expression expr4 = myBodyStack.pop();
+                    //Form 1
+                    multiPush(expr2, expr1, expr4, expr3, expr2, expr1);
+                } else if (expr1.hasDoubleLength() && !expr2.hasDoubleLength()) {
+                    if (size < 3 || myBodyStack.peek().hasDoubleLength()) {
+                        //There is a wrong condition, we return elements of stack as they were there
+                        multiPush(expr2, expr1);
+                        return;
+                    }
+                    final Expression expr3 = myBodyStack.pop();
+                    //Form 2
+                    multiPush(expr1, expr3, expr2, expr1);
+                } else if (expr1.hasDoubleLength() && expr2.hasDoubleLength()) {
+                    //Form 4
+                    multiPush(expr1, expr2, expr1);
+                }
+                break;
             }
+            case POP: {
+                if (size < 1 || myBodyStack.peek().hasDoubleLength()) {
+                    return;
+                }
 
-            final Expression expr1 = myBodyStack.pop();
-            if (expr1.hasDoubleLength()) {
-                //Form 2
-            } else {
-                if (size < 2 || myBodyStack.peek().hasDoubleLength()) {
-                    //There is a wrong condition, we return elements of stack as they were there
-                    multiPush(expr1);
+                if (myBodyStack.peek() instanceof Invocation) {
+                    myStatements.add(convertInvocationFromExpressionToStatement((Invocation) myBodyStack.pop()));
+                } else if (myBodyStack.peek() instanceof New) {
+                    myStatements.add(new com.sdc.ast.controlflow.New((New) myBodyStack.pop()));
+                } else {
+                    myBodyStack.pop();
+                }
+                break;
+            }
+            case POP2: {
+                if (size < 1) {
                     return;
                 }
-                //Form 1
-                myBodyStack.pop();
+
+                final Expression expr1 = myBodyStack.pop();
+                if (expr1.hasDoubleLength()) {
+                    //Form 2
+                } else {
+                    if (size < 2 || myBodyStack.peek().hasDoubleLength()) {
+                        //There is a wrong condition, we return elements of stack as they were there
+                        multiPush(expr1);
+                        return;
+                    }
+                    //Form 1
+                    myBodyStack.pop();
+                }
+                break;
             }
-        } else if (opString.contains("ALOAD")) {
-            final Expression arrayIndex = getTopOfBodyStack();
-            final Expression ref = getTopOfBodyStack();
+            case ARRAY_LOAD: {
+                final Expression arrayIndex = getTopOfBodyStack();
+                final Expression ref = getTopOfBodyStack();
 
-            myBodyStack.push(new SquareBrackets(ref, arrayIndex));
-        } else if (opString.contains("ASTORE")) {
-            final Expression expr = getTopOfBodyStack();
-            final Expression arrayIndex = getTopOfBodyStack();
+                myBodyStack.push(new SquareBrackets(ref, arrayIndex));
+                break;
+            }
+            case ARRAY_STORE: {
+                final Expression expr = getTopOfBodyStack();
+                final Expression arrayIndex = getTopOfBodyStack();
 
-            final Expression ref = getTopOfBodyStack();
-            if (ref instanceof NewArray) {
-                ((NewArray) ref).addNewInitializationValue(expr);
-            } else {
-                myStatements.add(new Assignment(new SquareBrackets(ref, arrayIndex), expr));
+                final Expression ref = getTopOfBodyStack();
+                if (ref instanceof NewArray) {
+                    ((NewArray) ref).addNewInitializationValue(expr);
+                } else {
+                    myStatements.add(new Assignment(new SquareBrackets(ref, arrayIndex), expr));
+                }
+                break;
             }
-        } else if (opString.equals("NOP")) {
-            //do nothing
-        } else if ((opString.contains("I2L") || opString.contains("F2L") || opString.contains("D2L")) && !myBodyStack.empty()) {
-            myBodyStack.push(new Cast(LONG_CAST, getTopOfBodyStack()));
-        } else if ((opString.contains("I2D") || opString.contains("F2D") || opString.contains("L2D")) && !myBodyStack.isEmpty()) {
-            myBodyStack.push(new Cast(DOUBLE_CAST, getTopOfBodyStack()));
-        } else if ((opString.contains("I2F") || opString.contains("L2F") || opString.contains("D2F")) && !myBodyStack.isEmpty()) {
-            myBodyStack.push(new Cast(FLOAT_CAST, getTopOfBodyStack()));
-        } else if ((opString.contains("L2I") || opString.contains("F2I") || opString.contains("D2I")) && !myBodyStack.isEmpty()) {
-            myBodyStack.push(new Cast(INT_CAST, getTopOfBodyStack()));
-        } else if ((opString.contains("I2B")) && !myBodyStack.isEmpty()) {
-            myBodyStack.push(new Cast(BYTE_CAST, getTopOfBodyStack()));
-        } else if ((opString.contains("I2C")) && !myBodyStack.isEmpty()) {
-            myBodyStack.push(new Cast(CHAR_CAST, getTopOfBodyStack()));
-        } else if ((opString.contains("I2S")) && !myBodyStack.isEmpty()) {
-            myBodyStack.push(new Cast(SHORT_CAST, getTopOfBodyStack()));
-        } else if (opString.contains("ARRAYLENGTH")) {
-            Expression e = getTopOfBodyStack();
-            myBodyStack.push(new ArrayLength(e));
+            case NOP:
+            case MONITOR:
+                //do nothing
+                break;
+            case CAST:
+                if (!myBodyStack.isEmpty()) {
+                    myBodyStack.push(new Cast(OpcodeTable.getExpressionType(opcode), getTopOfBodyStack()));
+                }
+                break;
+            case ARRAY_LENGTH: {
+                Expression e = getTopOfBodyStack();
+                myBodyStack.push(new ArrayLength(e));
+                break;
+            }
+            default:
         }
 //        All opcodes :
 //          +NOP, +ACONST_NULL, +ICONST_M1, +CONST_0, +ICONST_1, +ICONST_2, +ICONST_3, +ICONST_4, +ICONST_5,
@@ -447,34 +505,34 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
 
     @Override
     public void visitIntInsn(final int opcode, final int operand) {
-        final String opString = Printer.OPCODES[opcode];
+        final OpcodeTable.Operation operation = OpcodeTable.getOperation(opcode);
 
-        if (opString.contains("IPUSH")) {
+        if (operation == OpcodeTable.Operation.PUSH) {
             myBodyStack.push(new IntConstant(operand));
-        } else if (opString.contains("NEWARRAY")) {
+        } else if (operation == OpcodeTable.Operation.NEW_ARRAY) {
             final List<Expression> dimensions = new ArrayList<Expression>();
             dimensions.add(getTopOfBodyStack());
-            myBodyStack.push(createNewArray(1, Printer.TYPES[operand].substring(2).toLowerCase(), dimensions));
+            myBodyStack.push(createNewArray(1, OpcodeTable.getNewArrayType(operand), dimensions));
         }
     }
 
     @Override
     public void visitVarInsn(final int opcode, final int var) {
-        final String opString = Printer.OPCODES[opcode];
+        final OpcodeTable.Operation operation = OpcodeTable.getOperation(opcode);
 
         final Frame currentFrame = getCurrentFrame();
         final boolean currentFrameHasStack = currentFrame.checkStack() && myBodyStack.isEmpty();
 
         Type variableType = null;
 
-        if (opString.contains("LOAD")) {
+        if (operation == OpcodeTable.Operation.LOAD) {
             if (myStatements.isEmpty()) {
                 myBodyStack.push(currentFrame.getVariable(var));
             } else {
                 final int lastStatementIndex = myStatements.size() - 1;
                 final Statement lastStatement = myStatements.get(lastStatementIndex);
 
-                if (opString.contains("ILOAD") && lastStatement instanceof Increment
+                if (opcode == Opcodes.ILOAD && lastStatement instanceof Increment
                         && ((Increment) lastStatement).getVariable().getIndex() == var) {
                     final Increment increment = (Increment) lastStatement;
                     myStatements.remove(lastStatementIndex);
@@ -494,7 +552,7 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
                     myBodyStack.push(currentFrame.getVariable(var));
                 }
             }
-        } else if (opString.contains("STORE") && !currentFrameHasStack) {
+        } else if (operation == OpcodeTable.Operation.STORE && !currentFrameHasStack) {
             final Identifier v = currentFrame.getVariable(var);
             final Expression expr = getTopOfBodyStack();
 
@@ -504,16 +562,16 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
             checkIncrements(var, expr);
         }
 
-        if (!opString.contains("LOAD") && var > myDecompiledMethod.getLastLocalVariableIndex()) {
+        if (operation != OpcodeTable.Operation.LOAD && var > myDecompiledMethod.getLastLocalVariableIndex()) {
             String descriptorType;
             if (currentFrameHasStack) {
                 descriptorType = currentFrame.getStackedVariableType();
             } else {
-                descriptorType = getDescriptor(opString, 0, myDecompiledMethod.getImports());
+                descriptorType = getDescriptor(OpcodeTable.getOperandDescriptor(opcode), 0, myDecompiledMethod.getImports());
             }
 
             if (!descriptorType.equals("Object ") && !descriptorType.equals("Any") || variableType == null) {
-                variableType = new Type(descriptorType);
+                variableType = Type.valueOf(descriptorType);
             }
 
             final Variable variable = currentFrame.getVariable(var);
@@ -579,40 +637,41 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
 
     @Override
     public void visitTypeInsn(final int opcode, final String type) {
-        final String opString = Printer.OPCODES[opcode];
+        final OpcodeTable.Operation operation = OpcodeTable.getOperation(opcode);
         final boolean needToGetDescriptor = type.contains("[") || type.contains(";");
         final String actualType = needToGetDescriptor
                 ? getDescriptor(type, 0, myDecompiledMethod.getImports())
                 : decompileClassNameWithOuterClasses(type);
 
-        if (opString.contains("NEWARRAY")) {
+        if (operation == OpcodeTable.Operation.NEW_ARRAY) {
             final List<Expression> dimensions = new ArrayList<Expression>();
             dimensions.add(getTopOfBodyStack());
             myBodyStack.push(createNewArray(1, actualType, dimensions));
-        } else if (opString.contains("INSTANCEOF")) {
-            myBodyStack.push(new InstanceOf(new Type(actualType), getTopOfBodyStack()));
-        } else if (opString.contains("CHECKCAST") && !myBodyStack.empty()) {
+        } else if (operation == OpcodeTable.Operation.INSTANCE_OF) {
+            myBodyStack.push(new InstanceOf(Type.valueOf(actualType), getTopOfBodyStack()));
+        } else if (operation == OpcodeTable.Operation.CHECK_CAST && !myBodyStack.empty()) {
             myBodyStack.push(new Cast(CHECK_CAST, myBodyStack.pop(), actualType));
-        } else if (opString.equals("NEW")) {
-            myBodyStack.push(new Constant("stub", true, new Type("String")));
+        } else if (operation == OpcodeTable.Operation.NEW) {
+            myBodyStack.push(new Constant("stub", true, Type.valueOf("String")));
         }
     }
 
     @Override
     public void visitFieldInsn(final int opcode, final String owner, final String name, final String desc) {
-        final String opString = Printer.OPCODES[opcode];
+        final OpcodeTable.Operation operation = OpcodeTable.getOperation(opcode);
+        final boolean isPut = operation == OpcodeTable.Operation.PUT_FIELD || operation == OpcodeTable.Operation.PUT_STATIC;
         final String fieldName = (myDecompiledMethod.getDecompiledClass().isLambdaFunctionClass()
                 || myDecompiledMethod.getDecompiledClass().isNestedClass()) && name.startsWith("$")
                 ? name.substring(1)
                 : name;
-        final Field field = new Field(fieldName, new Type(getDescriptor(desc, 0, myDecompiledMethod.getImports())));
+        final Field field = new Field(fieldName, Type.valueOf(getDescriptor(desc, 0, myDecompiledMethod.getImports())));
 
         Expression e = null;
-        if (opString.contains("PUTFIELD") || opString.contains("PUTSTATIC")) {
+        if (isPut) {
             e = getTopOfBodyStack();
         }
 
-        if (opString.contains("PUTFIELD") || opString.contains("GETFIELD")) {
+        if (operation == OpcodeTable.Operation.PUT_FIELD || operation == OpcodeTable.Operation.GET_FIELD) {
             final Expression fieldOwner = getTopOfBodyStack();
             field.setOwner(fieldOwner);
         } else {
@@ -620,7 +679,7 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
             field.setStaticOwnerName(fieldOwner);
         }
 
-        if (opString.contains("PUTFIELD") || opString.contains("PUTSTATIC")) {
+        if (isPut) {
             if ((myDecompiledMethod.getName().equals("<clinit>")
                     || myDecompiledOwnerFullClassName.endsWith(myDecompiledMethod.getName()))
                     && isInitializationValueCorrect(e) && !myDecompiledMethod.hasFieldInitializer(name)) {
@@ -628,7 +687,7 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
             } else if (!name.startsWith("this$")) {
                 myStatements.add(new Assignment(field, e));
             }
-        } else if (opString.contains("GETFIELD") || opString.contains("GETSTATIC")) {
+        } else {
             myBodyStack.push(field);
         }
     }
@@ -647,7 +706,7 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
 
     @Override
     public void visitMethodInsn(final int opcode, final String owner, final String name, final String desc) {
-        final String opString = Printer.OPCODES[opcode];
+        final OpcodeTable.Operation operation = OpcodeTable.getOperation(opcode);
 
         final String decompiledOwnerFullClassName = DeclarationWorker.decompileFullClassName(owner);
         final String ownerClassName = decompileClassNameWithOuterClasses(owner);
@@ -659,14 +718,14 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
 
         boolean isStaticInvocation = false;
 
-        if (opString.contains("INVOKEVIRTUAL") || opString.contains("INVOKEINTERFACE")
-                || (!opString.contains("INVOKESTATIC")
+        if (operation == OpcodeTable.Operation.INVOKE_VIRTUAL || operation == OpcodeTable.Operation.INVOKE_INTERFACE
+                || (operation != OpcodeTable.Operation.INVOKE_STATIC
                 && decompiledOwnerFullClassName.equals(myDecompiledOwnerFullClassName) && !name.equals("<init>"))) {
-            appendInstanceInvocation(name, hasVoidReturnType ? Type.VOID : new Type(returnType), arguments, getTopOfBodyStack());
+            appendInstanceInvocation(name, hasVoidReturnType ? Type.VOID : Type.valueOf(returnType), arguments, getTopOfBodyStack());
             return;
         }
 
-        if (opString.contains("INVOKESPECIAL")) {
+        if (operation == OpcodeTable.Operation.INVOKE_SPECIAL) {
             if (name.equals("<init>")) {
                 myDecompiledMethod.addImport(decompiledOwnerFullClassName);
                 invocationName = ownerClassName;
@@ -676,14 +735,14 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
             }
         }
 
-        if (opString.contains("INVOKESTATIC")) {
+        if (operation == OpcodeTable.Operation.INVOKE_STATIC) {
             myDecompiledMethod.addImport(decompiledOwnerFullClassName);
             invocationName = ownerClassName + "." + name;
             isStaticInvocation = true;
         }
 
         appendInvocationOrConstructor(isStaticInvocation, name, invocationName
-                , hasVoidReturnType ? Type.VOID : new Type(returnType), arguments, decompiledOwnerFullClassName);
+                , hasVoidReturnType ? Type.VOID : Type.valueOf(returnType), arguments, decompiledOwnerFullClassName);
     }
 
     @Override
@@ -692,55 +751,55 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
 
     @Override
     public void visitJumpInsn(final int opcode, final Label label) {
-        final String opString = Printer.OPCODES[opcode];
+        final OpcodeTable.Operation operation = OpcodeTable.getOperation(opcode);
 
-        if (opString.contains("IF")) {
+        if (operation == OpcodeTable.Operation.CONDITIONAL_JUMP) {
             final Label myLastIFLabel = label;
 
             if (myNodes.isEmpty() || !myNodeInnerLabels.isEmpty()
                     || (myNodes.get(getLeftEmptyNodeIndex() - 1).getCondition() == null)) {
 
-                for (final Node node : myNodes) {
-                    if (!(node instanceof DoWhile)
-                            && node.getInnerLabels().contains(label)
-                            && myNodes.get(myNodes.size() - 1).getCondition() == null) {
+                final Node node = myLabelNodes.get(label);
+                if (node != null && !(node instanceof DoWhile)
+                        && myNodes.get(myNodes.size() - 1).getCondition() == null) {
 
-                        myIfElseMap.put(myNodes.size(), label);
+                    myIfElseMap.put(myNodes.size(), label);
 
-                        final int index = node.getInnerLabels().indexOf(label);
+                    final int index = node.getInnerLabels().indexOf(label);
 
-                        final DoWhile dw = new DoWhile(null, new ArrayList<Label>(myNodeInnerLabels), myNodes.size());
-                        dw.setStatements(new ArrayList<Statement>(node.getStatements().subList(0, index)));
-                        dw.getInnerLabels().addAll(new ArrayList<Label>(node.getInnerLabels().subList(0, index)));
-                        dw.setCondition(getConditionFromStack(opString));
-                        dw.setIsEmpty(true);
-                        myNodes.add(dw);
+                    final DoWhile dw = new DoWhile(null, new ArrayList<Label>(), myNodes.size());
+                    dw.setStatements(new ArrayList<Statement>(node.getStatements().subList(0, index)));
+                    final List<Label> doWhileLabels = new ArrayList<Label>(myNodeInnerLabels);
+                    doWhileLabels.addAll(node.getInnerLabels().subList(0, index));
+                    setInnerLabels(dw, doWhileLabels);
+                    dw.setCondition(getConditionFromStack(opcode));
+                    dw.setIsEmpty(true);
+                    myNodes.add(dw);
 
-                        node.setStatements(new ArrayList<Statement>(node.getStatements().subList(index, node.getStatements().size())));
-                        node.setInnerLabels(new ArrayList<Label>(node.getInnerLabels().subList(index, node.getInnerLabels().size())));
-                        myNodeInnerLabels.clear();
-                        return;
-                    }
+                    node.setStatements(new ArrayList<Statement>(node.getStatements().subList(index, node.getStatements().size())));
+                    setInnerLabels(node, new ArrayList<Label>(node.getInnerLabels().subList(index, node.getInnerLabels().size())));
+                    myNodeInnerLabels.clear();
+                    return;
                 }
 
                 if (myNodeInnerLabels.contains(label)) {
                     final int index = myNodeInnerLabels.indexOf(label);
                     final Node beforeNode = new Node(null, null, myNodes.size());
                     beforeNode.setStatements(new ArrayList<Statement>(myStatements.subList(0, index)));
-                    beforeNode.setInnerLabels(new ArrayList<Label>(myNodeInnerLabels.subList(0, index)));
+                    setInnerLabels(beforeNode, new ArrayList<Label>(myNodeInnerLabels.subList(0, index)));
                     beforeNode.setIsEmpty(true);
                     myNodes.add(beforeNode);
 
                     final Node innerNode = new Node(null, null, myNodes.size());
                     innerNode.setStatements(new ArrayList<Statement>(myStatements.subList(index, myStatements.size())));
-                    innerNode.setInnerLabels(new ArrayList<Label>(myNodeInnerLabels.subList(index, myNodeInnerLabels.size())));
+                    setInnerLabels(innerNode, new ArrayList<Label>(myNodeInnerLabels.subList(index, myNodeInnerLabels.size())));
                     innerNode.setIsEmpty(true);
                     myNodes.add(innerNode);
 
                     myIfElseMap.put(myNodes.size(), label);
 
                     final DoWhile dw = new DoWhile(new ArrayList<Statement>(), new ArrayList<Label>(), myNodes.size());
-                    dw.setCondition(getConditionFromStack(opString));
+                    dw.setCondition(getConditionFromStack(opcode));
                     dw.setIsEmpty(true);
                     myNodes.add(dw);
 
@@ -755,10 +814,10 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
                 applyNode();
 
                 final int last = myNodes.size() - 1;
-                myNodes.get(last).setCondition(getConditionFromStack(opString));
+                myNodes.get(last).setCondition(getConditionFromStack(opcode));
                 myNodes.get(last).setIsEmpty(true);
             }
-        } else if (opString.contains("GOTO")) {
+        } else if (operation == OpcodeTable.Operation.GOTO) {
             myLabels.add(label);
             final int value = getLeftEmptyNodeIndex();
 
@@ -774,11 +833,10 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
 
     @Override
     public void visitLabel(final Label label) {
-        getCurrentFrame().addLabel(label);
+        myDecompiledMethod.addLabel(label);
 
-        if (myLabels.contains(label)) {
+        if (myLabels.remove(label)) {
             applyNode();
-            myLabels.remove(label);
         }
         myNodeInnerLabels.add(label);
     }
@@ -786,7 +844,7 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
     @Override
     public void visitLdcInsn(final Object cst) {
         final boolean hasDoubleLength = true;
-        myBodyStack.push(new Constant(cst, cst instanceof String, new Type("String")));
+        myBodyStack.push(new Constant(cst, cst instanceof String, Type.valueOf("String")));
     }
 
     @Override
@@ -884,7 +942,7 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
         final String description = signature != null ? signature : desc;
 
         String descriptor = getDescriptor(description, 0, myDecompiledMethod.getImports());
-        myDecompiledMethod.updateVariableInformationFromDebugInfo(index, new Type(descriptor)
+        myDecompiledMethod.updateVariableInformationFromDebugInfo(index, Type.valueOf(descriptor)
                 , new Constant(name, false, Type.VOID), start, end);
     }
 
@@ -898,23 +956,60 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
 
     @Override
     public void visitEnd() {
+        finishPhase(DecompilerStatistics.Phase.VISITING);
+
+        if (!myIsAnalysisDeferred) {
+            analyze();
+        }
+    }
+
+    /**
+     * Builds the graph and the constructions of the visited method. It depends on nothing but the method,
+     * so the methods of a class may be analysed in parallel.
+     */
+    public void analyze() {
+        if (myIsAnalysisDeferred && myMeasurement != null) {
+            myMeasurement.startPhase();
+        }
+
         applyNode();
 
         placeEdges();
-        if (Settings.getInstance().isGraphDrawingEnabled()) {
+        if (mySession.isGraphDrawingEnabled()) {
             printGraphInfo();
         }
+        final ControlFlowGraph graph = new ControlFlowGraph(myNodes);
+        finishPhase(DecompilerStatistics.Phase.GRAPH);
+
+        final DominatorTreeGenerator gen = new DominatorTreeGenerator(graph);
+        finishPhase(DecompilerStatistics.Phase.DOMINATORS);
 
-        final DominatorTreeGenerator gen = new DominatorTreeGenerator(myNodes);
         final ConstructionBuilder cb = createConstructionBuilder(myNodes, gen);
 
         myDecompiledMethod.setBegin(cb.build());
+        finishPhase(DecompilerStatistics.Phase.CONSTRUCTIONS);
+
+        addStatistics(graph);
+    }
+
+    private void finishPhase(final @NotNull DecompilerStatistics.Phase phase) {
+        if (myMeasurement != null) {
+            myMeasurement.finishPhase(phase);
+        }
+    }
+
+    private void addStatistics(final @NotNull ControlFlowGraph graph) {
+        final DecompilerStatistics statistics = mySession.getStatistics();
+        if (myMeasurement != null && statistics != null) {
+            statistics.addMethodStatistics(myMethodKey == null ? myDecompiledMethod.getName() : myMethodKey
+                    , graph.getSize(), graph.getEdgesCount(), myMeasurement);
+        }
     }
 
     private void printGraphInfo() {
         if (myNodes.size() > 2) {
             final GraphDrawer gd = new GraphDrawer(myNodes
-                    , myDecompiledMethod.getDecompiledClass().getName() + "_" + myDecompiledMethod.getName());
+                    , myDecompiledMethod.getDecompiledClass().getName() + "_" + myDecompiledMethod.getName(), mySession.getPath());
             gd.draw();
         }
     }
@@ -929,18 +1024,16 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
         }
     }
 
-    private void placeEdges() {
+    protected void placeEdges() {
         // GOTO
-        for (final Label lbl : myGoToMap.keySet()) {
-            for (final Node node : myNodes) {
-                if (node.containsLabel(lbl)) {
-                    for (final Integer i : myGoToMap.get(lbl)) {
-                        if (i != myNodes.indexOf(node)) {
-                            myNodes.get(i).addTail(node);
-                            node.addAncestor(myNodes.get(i));
-                        }
+        for (final Map.Entry<Label, List<Integer>> goTo : myGoToMap.entrySet()) {
+            final Node node = myLabelNodes.get(goTo.getKey());
+            if (node != null) {
+                for (final Integer i : goTo.getValue()) {
+                    if (i != node.getIndex()) {
+                        myNodes.get(i).addTail(node);
+                        node.addAncestor(myNodes.get(i));
                     }
-                    break;
                 }
             }
         }
@@ -950,12 +1043,10 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
             final Node node = myNodes.get(i);
             if (node instanceof Switch) {
                 for (final Label label : ((Switch) node).getLabels()) {
-                    for (int j = i + 1; j < myNodes.size(); j++) {
-                        if (myNodes.get(j).containsLabel(label)) {
-                            node.addTail(myNodes.get(j));
-                            myNodes.get(j).addAncestor(node);
-                            break;
-                        }
+                    final Node caseNode = myLabelNodes.get(label);
+                    if (caseNode != null && caseNode.getIndex() > i) {
+                        node.addTail(caseNode);
+                        caseNode.addAncestor(node);
                     }
                 }
             } else if (node.getListOfTails().isEmpty() && !node.isLastStatementReturn() && node.getIndex() != myNodes.size() - 1) {
@@ -965,13 +1056,11 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
         }
 
         // IF ELSE Branch
-        for (final Integer index : myIfElseMap.keySet()) {
-            for (final Node node : myNodes) {
-                if (node.containsLabel(myIfElseMap.get(index))) {
-                    myNodes.get(index).addTail(node);
-                    node.addAncestor(myNodes.get(index));
-                    break;
-                }
+        for (final Map.Entry<Integer, Label> ifElse : myIfElseMap.entrySet()) {
+            final Node node = myLabelNodes.get(ifElse.getValue());
+            if (node != null) {
+                myNodes.get(ifElse.getKey()).addTail(node);
+                node.addAncestor(myNodes.get(ifElse.getKey()));
             }
         }
 
@@ -986,25 +1075,24 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
     }
 
     @NotNull
-    private Expression getConditionFromStack(final @NotNull String opString) {
-        if (opString.contains("IF_")) {
+    private Expression getConditionFromStack(final int opcode) {
+        final ExpressionType type = OpcodeTable.getExpressionType(opcode);
+        if (OpcodeTable.getCondition(opcode) == OpcodeTable.Condition.COMPARISON) {
             final Expression e1 = getTopOfBodyStack();
             final Expression e2 = getTopOfBodyStack();
-            return new BinaryExpression(ExpressionType.valueOf(opString.substring(7)), e2, e1);
+            return new BinaryExpression(type, e2, e1);
         } else {
             final Expression e = getTopOfBodyStack();
-            if (opString.contains("NONNULL")) {
-                return new BinaryExpression(ExpressionType.NE, e, Constant.NULL);
-            } else if (opString.contains("NULL")) {
-                return new BinaryExpression(ExpressionType.EQ, e, Constant.NULL);
+            if (OpcodeTable.getCondition(opcode) == OpcodeTable.Condition.NULL_CHECK) {
+                return new BinaryExpression(type, e, Constant.NULL);
             } else {
                 if (e.isBoolean()) {
-                    if (opString.contains("EQ")) {
+                    if (type == ExpressionType.EQ) {
                         return e.invert();
                     }
                     return e;
                 } else {
-                    return new BinaryExpression(ExpressionType.valueOf(opString.substring(2)), e, IntConstant.ZERO);
+                    return new BinaryExpression(type, e, IntConstant.ZERO);
                 }
             }
         }
@@ -1012,9 +1100,10 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
 
     @NotNull
     protected Integer getLeftEmptyNodeIndex() {
-        for (final Node node : myNodes) {
+        for (int i = 0; i < myNodes.size(); i++) {
+            final Node node = myNodes.get(i);
             if (node.statementsIsEmpty() && !node.isEmpty()) {
-                return myNodes.indexOf(node);
+                return i;
             }
         }
         return myNodes.size();
@@ -1024,12 +1113,13 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
         final Integer i = getLeftEmptyNodeIndex();
         if (i != myNodes.size()) {
             myNodes.get(i).setStatements(new ArrayList<Statement>(myStatements));
-            myNodes.get(i).setInnerLabels(new ArrayList<Label>(myNodeInnerLabels));
+            setInnerLabels(myNodes.get(i), new ArrayList<Label>(myNodeInnerLabels));
             if (myNodes.get(i).getStatements().isEmpty()) {
                 myNodes.get(i).setIsEmpty(true);
             }
         } else {
-            Node node = new Node(new ArrayList<Statement>(myStatements), new ArrayList<Label>(myNodeInnerLabels), myNodes.size());
+            Node node = new Node(new ArrayList<Statement>(myStatements), null, myNodes.size());
+            setInnerLabels(node, new ArrayList<Label>(myNodeInnerLabels));
             if (node.getStatements().isEmpty()) {
                 node.setIsEmpty(true);
             }
@@ -1040,6 +1130,25 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
         myStatements.clear();
     }
 
+    /**
+     * Labels of nodes are set only here to keep the label index up to date.
+     */
+    protected void setInnerLabels(final @NotNull Node node, final @NotNull List<Label> labels) {
+        final List<Label> oldLabels = node.getInnerLabels();
+        if (oldLabels != null) {
+            for (final Label label : oldLabels) {
+                if (myLabelNodes.get(label) == node) {
+                    myLabelNodes.remove(label);
+                }
+            }
+        }
+
+        node.setInnerLabels(labels);
+        for (final Label label : labels) {
+            myLabelNodes.put(label, node);
+        }
+    }
+
     @NotNull
     protected ConstructionBuilder createConstructionBuilder(final @NotNull List<Node> myNodes,
                                                             final @NotNull DominatorTreeGenerator gen) {
@@ -1231,7 +1340,7 @@ public abstract class GeneralMethodVisitor extends MethodVisitor {
     }
 
     @NotNull
-    protected String getDescriptor(final @NotNull String descriptor, final int pos, final @NotNull List<String> imports) {
+    protected String getDescriptor(final @NotNull String descriptor, final int pos, final @NotNull Collection<String> imports) {
         final String decompiledDescriptor = myDecompiledMethod.getDecompiledClass()
                 .getDescriptor(descriptor, pos, imports, myLanguage);
 
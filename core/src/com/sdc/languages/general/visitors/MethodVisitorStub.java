@@ -328,4 +328,16 @@ public class MethodVisitorStub extends GeneralMethodVisitor {
         }
         ((GeneralMethodVisitor) mv).getDecompiledMethod().setError(myError);
     }
+
+    @Override
+    public void analyze() {
+        try {
+            ((GeneralMethodVisitor) mv).analyze();
+        } catch (RuntimeException e) {
+            if (!myHasDecompilingError) {
+                processOccurredError("Error occurred while visiting end", e);
+            }
+        }
+        ((GeneralMethodVisitor) mv).getDecompiledMethod().setError(myError);
+    }
 }
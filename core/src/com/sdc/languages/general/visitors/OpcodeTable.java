@@ -0,0 +1,254 @@
+package com.sdc.languages.general.visitors;
+
+import com.sdc.ast.ExpressionType;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.util.Printer;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Everything the method visitors need to know about an instruction, precomputed per opcode,
+ * so that visiting an instruction is a table lookup instead of matching its name.
+ */
+public class OpcodeTable {
+    public enum Operation {
+        NOP,
+        CONST_NULL, CONST_M1, INT_CONST, CONST, PUSH, LDC,
+        LOAD, STORE, RET, INCREMENT,
+        ARRAY_LOAD, ARRAY_STORE, ARRAY_LENGTH, NEW_ARRAY, MULTI_NEW_ARRAY,
+        POP, POP2, DUP, DUP_X1, DUP_X2, DUP2, DUP2_X1, DUP2_X2, SWAP,
+        BINARY, NEGATE, CAST, COMPARE,
+        CONDITIONAL_JUMP, GOTO, JSR, SWITCH,
+        RETURN, RETURN_VALUE, THROW,
+        GET_FIELD, PUT_FIELD, GET_STATIC, PUT_STATIC,
+        INVOKE_VIRTUAL, INVOKE_SPECIAL, INVOKE_STATIC, INVOKE_INTERFACE, INVOKE_DYNAMIC,
+        NEW, CHECK_CAST, INSTANCE_OF,
+        MONITOR
+    }
+
+    /**
+     * Kinds of conditional jumps by the operands they take from the stack.
+     */
+    public enum Condition {
+        COMPARISON, NULL_CHECK, ZERO_COMPARISON
+    }
+
+    private static final int OPCODES_COUNT = 256;
+
+    private static final Operation[] OPERATIONS = new Operation[OPCODES_COUNT];
+    private static final ExpressionType[] EXPRESSION_TYPES = new ExpressionType[OPCODES_COUNT];
+    private static final Condition[] CONDITIONS = new Condition[OPCODES_COUNT];
+    private static final String[] CONSTANT_VALUES = new String[OPCODES_COUNT];
+    private static final String[] OPERAND_DESCRIPTORS = new String[OPCODES_COUNT];
+    private static final String[] NEW_ARRAY_TYPES = new String[Printer.TYPES.length];
+
+    static {
+        set(NOP, Operation.NOP);
+        set(ACONST_NULL, Operation.CONST_NULL);
+        set(ICONST_M1, Operation.CONST_M1);
+        setRange(ICONST_0, ICONST_5, Operation.INT_CONST);
+        setConstants(LCONST_0, LCONST_1, "L");
+        setConstants(FCONST_0, FCONST_2, "F");
+        setConstants(DCONST_0, DCONST_1, "D");
+        setRange(BIPUSH, SIPUSH, Operation.PUSH);
+        set(LDC, Operation.LDC);
+
+        // loads and stores of I, L, F, D, A in this order
+        setRange(ILOAD, ALOAD, Operation.LOAD);
+        setRange(ISTORE, ASTORE, Operation.STORE);
+        // the descriptor of the stored value is the first letter of the opcode name, "L" is read as long
+        setOperandDescriptors(ISTORE);
+        set(RET, Operation.RET);
+        OPERAND_DESCRIPTORS[RET] = "R";
+        set(IINC, Operation.INCREMENT);
+
+        setRange(IALOAD, SALOAD, Operation.ARRAY_LOAD);
+        setRange(IASTORE, SASTORE, Operation.ARRAY_STORE);
+        set(ARRAYLENGTH, Operation.ARRAY_LENGTH);
+        set(NEWARRAY, Operation.NEW_ARRAY);
+        set(ANEWARRAY, Operation.NEW_ARRAY);
+        set(MULTIANEWARRAY, Operation.MULTI_NEW_ARRAY);
+
+        set(POP, Operation.POP);
+        set(POP2, Operation.POP2);
+        set(DUP, Operation.DUP);
+        set(DUP_X1, Operation.DUP_X1);
+        set(DUP_X2, Operation.DUP_X2);
+        set(DUP2, Operation.DUP2);
+        set(DUP2_X1, Operation.DUP2_X1);
+        set(DUP2_X2, Operation.DUP2_X2);
+        set(SWAP, Operation.SWAP);
+
+        setBinary(IADD, DADD, ExpressionType.ADD);
+        setBinary(ISUB, DSUB, ExpressionType.SUB);
+        setBinary(IMUL, DMUL, ExpressionType.MUL);
+        setBinary(IDIV, DDIV, ExpressionType.DIV);
+        setBinary(IREM, DREM, ExpressionType.REM);
+        setRange(INEG, DNEG, Operation.NEGATE);
+        setBinary(ISHL, LSHL, ExpressionType.SHL);
+        setBinary(ISHR, LSHR, ExpressionType.SHR);
+        setBinary(IUSHR, LUSHR, ExpressionType.USHR);
+        setBinary(IAND, LAND, ExpressionType.BITWISE_AND);
+        setBinary(IOR, LOR, ExpressionType.BITWISE_OR);
+        setBinary(IXOR, LXOR, ExpressionType.BITWISE_XOR);
+
+        setCast(I2L, ExpressionType.LONG_CAST);
+        setCast(I2F, ExpressionType.FLOAT_CAST);
+        setCast(I2D, ExpressionType.DOUBLE_CAST);
+        setCast(L2I, ExpressionType.INT_CAST);
+        setCast(L2F, ExpressionType.FLOAT_CAST);
+        setCast(L2D, ExpressionType.DOUBLE_CAST);
+        setCast(F2I, ExpressionType.INT_CAST);
+        setCast(F2L, ExpressionType.LONG_CAST);
+        setCast(F2D, ExpressionType.DOUBLE_CAST);
+        setCast(D2I, ExpressionType.INT_CAST);
+        setCast(D2L, ExpressionType.LONG_CAST);
+        setCast(D2F, ExpressionType.FLOAT_CAST);
+        setCast(I2B, ExpressionType.BYTE_CAST);
+        setCast(I2C, ExpressionType.CHAR_CAST);
+        setCast(I2S, ExpressionType.SHORT_CAST);
+        setRange(LCMP, DCMPG, Operation.COMPARE);
+
+        setConditions(IFEQ, Condition.ZERO_COMPARISON);
+        setConditions(IF_ICMPEQ, Condition.COMPARISON);
+        setCondition(IF_ACMPEQ, ExpressionType.EQ, Condition.COMPARISON);
+        setCondition(IF_ACMPNE, ExpressionType.NE, Condition.COMPARISON);
+        setCondition(IFNULL, ExpressionType.EQ, Condition.NULL_CHECK);
+        setCondition(IFNONNULL, ExpressionType.NE, Condition.NULL_CHECK);
+        set(GOTO, Operation.GOTO);
+        set(JSR, Operation.JSR);
+        set(TABLESWITCH, Operation.SWITCH);
+        set(LOOKUPSWITCH, Operation.SWITCH);
+
+        setRange(IRETURN, ARETURN, Operation.RETURN_VALUE);
+        set(RETURN, Operation.RETURN);
+        set(ATHROW, Operation.THROW);
+
+        set(GETSTATIC, Operation.GET_STATIC);
+        set(PUTSTATIC, Operation.PUT_STATIC);
+        set(GETFIELD, Operation.GET_FIELD);
+        set(PUTFIELD, Operation.PUT_FIELD);
+        set(INVOKEVIRTUAL, Operation.INVOKE_VIRTUAL);
+        set(INVOKESPECIAL, Operation.INVOKE_SPECIAL);
+        set(INVOKESTATIC, Operation.INVOKE_STATIC);
+        set(INVOKEINTERFACE, Operation.INVOKE_INTERFACE);
+        set(INVOKEDYNAMIC, Operation.INVOKE_DYNAMIC);
+
+        set(NEW, Operation.NEW);
+        set(CHECKCAST, Operation.CHECK_CAST);
+        set(INSTANCEOF, Operation.INSTANCE_OF);
+        set(MONITORENTER, Operation.MONITOR);
+        set(MONITOREXIT, Operation.MONITOR);
+
+        // T_BOOLEAN -> boolean, ...
+        for (int i = 0; i < Printer.TYPES.length; i++) {
+            if (Printer.TYPES[i] != null && Printer.TYPES[i].length() > 2) {
+                NEW_ARRAY_TYPES[i] = Printer.TYPES[i].substring(2).toLowerCase();
+            }
+        }
+    }
+
+    private OpcodeTable() {
+    }
+
+    @NotNull
+    public static Operation getOperation(final int opcode) {
+        return OPERATIONS[opcode];
+    }
+
+    /**
+     * Binary operation, cast or jump condition of the instruction.
+     */
+    @Nullable
+    public static ExpressionType getExpressionType(final int opcode) {
+        return EXPRESSION_TYPES[opcode];
+    }
+
+    @Nullable
+    public static Condition getCondition(final int opcode) {
+        return CONDITIONS[opcode];
+    }
+
+    /**
+     * Value of LCONST_0, ..., DCONST_1 as it is printed.
+     */
+    @Nullable
+    public static String getConstantValue(final int opcode) {
+        return CONSTANT_VALUES[opcode];
+    }
+
+    /**
+     * Type descriptor of the constant of xCONST_n or of the value of xSTORE and RET.
+     */
+    @Nullable
+    public static String getOperandDescriptor(final int opcode) {
+        return OPERAND_DESCRIPTORS[opcode];
+    }
+
+    /**
+     * Element type of NEWARRAY by its operand.
+     */
+    @NotNull
+    public static String getNewArrayType(final int operand) {
+        return NEW_ARRAY_TYPES[operand];
+    }
+
+    private static void set(final int opcode, final @NotNull Operation operation) {
+        OPERATIONS[opcode] = operation;
+    }
+
+    private static void setRange(final int firstOpcode, final int lastOpcode, final @NotNull Operation operation) {
+        for (int opcode = firstOpcode; opcode <= lastOpcode; opcode++) {
+            OPERATIONS[opcode] = operation;
+        }
+    }
+
+    private static void setConstants(final int firstOpcode, final int lastOpcode, final @NotNull String descriptor) {
+        for (int opcode = firstOpcode; opcode <= lastOpcode; opcode++) {
+            OPERATIONS[opcode] = Operation.CONST;
+            CONSTANT_VALUES[opcode] = String.valueOf(opcode - firstOpcode);
+            OPERAND_DESCRIPTORS[opcode] = descriptor;
+        }
+    }
+
+    private static void setOperandDescriptors(final int firstOpcode) {
+        final String[] descriptors = {"I", "L", "F", "D", "A"};
+        for (int i = 0; i < descriptors.length; i++) {
+            OPERAND_DESCRIPTORS[firstOpcode + i] = descriptors[i];
+        }
+    }
+
+    /**
+     * Opcodes of the operation go as I, L, F, D.
+     */
+    private static void setBinary(final int firstOpcode, final int lastOpcode, final @NotNull ExpressionType type) {
+        for (int opcode = firstOpcode; opcode <= lastOpcode; opcode++) {
+            OPERATIONS[opcode] = Operation.BINARY;
+            EXPRESSION_TYPES[opcode] = type;
+        }
+    }
+
+    private static void setCast(final int opcode, final @NotNull ExpressionType type) {
+        OPERATIONS[opcode] = Operation.CAST;
+        EXPRESSION_TYPES[opcode] = type;
+    }
+
+    /**
+     * EQ, NE, LT, GE, GT, LE starting with the given opcode.
+     */
+    private static void setConditions(final int firstOpcode, final @NotNull Condition condition) {
+        final ExpressionType[] types = {ExpressionType.EQ, ExpressionType.NE, ExpressionType.LT
+                , ExpressionType.GE, ExpressionType.GT, ExpressionType.LE};
+        for (int i = 0; i < types.length; i++) {
+            setCondition(firstOpcode + i, types[i], condition);
+        }
+    }
+
+    private static void setCondition(final int opcode, final @NotNull ExpressionType type, final @NotNull Condition condition) {
+        OPERATIONS[opcode] = Operation.CONDITIONAL_JUMP;
+        EXPRESSION_TYPES[opcode] = type;
+        CONDITIONS[opcode] = condition;
+    }
+}
@@ -1,13 +1,15 @@
 package com.sdc.languages.java.languageParts;
 
 import JavaPrinters.JavaPrinter;
-import pretty.PrettyPackage;
 
 import com.sdc.languages.general.languageParts.GeneralClass;
+import com.sdc.util.CodeLayout;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 
@@ -25,7 +27,7 @@ public class JavaClass extends GeneralClass {
                      final int textWidth,
                      final int nestSize) {
         super(modifier, type, name, packageName, implementedInterfaces, superClass, genericTypes, genericIdentifiers, textWidth, nestSize);
-        this.myDefaultPackages = Arrays.asList(myPackage, "java.lang");
+        this.myDefaultPackages = new HashSet<String>(Arrays.asList(myPackage, "java.lang"));
     }
 
     @NotNull
@@ -37,6 +39,11 @@ public class JavaClass extends GeneralClass {
     @NotNull
     @Override
     public String toString() {
-        return PrettyPackage.pretty(myTextWidth, (new JavaPrinter()).printClass(this));
+        return CodeLayout.layOut(mySession, myTextWidth, (new JavaPrinter()).printClass(this));
+    }
+
+    @Override
+    public void print(final @NotNull Appendable output) throws IOException {
+        CodeLayout.layOut(mySession, myTextWidth, (new JavaPrinter()).printClass(this), output);
     }
 }
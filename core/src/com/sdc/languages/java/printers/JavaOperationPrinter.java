@@ -6,7 +6,7 @@ import org.jetbrains.annotations.NotNull;
 
 
 public class JavaOperationPrinter extends OperationPrinter {
-    protected static OperationPrinter ourInstance = new JavaOperationPrinter();
+    private static final OperationPrinter ourInstance = new JavaOperationPrinter();
 
     @NotNull
     public static OperationPrinter getInstance() {
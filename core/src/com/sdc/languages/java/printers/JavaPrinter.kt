@@ -70,7 +70,7 @@ class JavaPrinter: Printer() {
         if (isStaticBlock) {
               declaration = text("static")
         } else {
-            declaration = group(printAnnotations(classMethod.getAnnotations().toList()) + text(classMethod.getModifier()))
+            declaration = group(text(classMethod.getModifier()))
 
             val genericsCode = printGenerics(classMethod.getGenericDeclaration())
 
@@ -87,7 +87,7 @@ class JavaPrinter: Printer() {
             }
 
             var arguments: PrimeDoc = printMethodParameters(classMethod)
-            declaration = group(declaration + arguments + text(")") + throwsExceptions)
+            declaration = printAnnotations(classMethod.getAnnotations().toList()) + group(declaration + arguments + text(")") + throwsExceptions)
         }
 
         val nestedClasses = nest(classMethod.getNestSize(), printMethodInnerClasses(classMethod.getDecompiledClass(), classMethod.getName(), classMethod.getSignature()))
@@ -132,7 +132,7 @@ class JavaPrinter: Printer() {
 
         var headerCode : PrimeDoc = printPackageAndImports(decompiledClass)
 
-        var declaration : PrimeDoc = group(printAnnotations(javaClass.getAnnotations().toList()) + text(javaClass.getModifier() + javaClass.getTypeToString() + javaClass.getName()))
+        var declaration : PrimeDoc = group(text(javaClass.getModifier() + javaClass.getTypeToString() + javaClass.getName()))
 
         val genericsCode = printGenerics(javaClass.getGenericDeclaration())
         declaration = declaration + genericsCode
@@ -154,13 +154,13 @@ class JavaPrinter: Printer() {
             )
         }
 
-        var javaClassCode : PrimeDoc = headerCode / group(declaration + text(" {")) + nest(javaClass.getNestSize(), printClassBodyInnerClasses(javaClass))
+        var javaClassCode : PrimeDoc = headerCode / printAnnotations(javaClass.getAnnotations().toList()) + group(declaration + text(" {")) + nest(javaClass.getNestSize(), printClassBodyInnerClasses(javaClass))
 
         for (classField in javaClass.getFields().toList())
             javaClassCode = javaClassCode + nest(javaClass.getNestSize(), line() + printField(classField))
 
-        for (classMethod in javaClass.getMethods().toList())
-            javaClassCode = javaClassCode / nest(javaClass.getNestSize(), line() + printMethod(classMethod))
+        for (methodCode in printMethods(javaClass))
+            javaClassCode = javaClassCode / nest(javaClass.getNestSize(), line() + methodCode)
 
 
         return javaClassCode / text("}")
@@ -169,7 +169,7 @@ class JavaPrinter: Printer() {
     fun printEnum(decompiledClass: GeneralClass): PrimeDoc {
         val javaClass: JavaClass = decompiledClass as JavaClass
 
-        var declaration : PrimeDoc = group(printAnnotations(javaClass.getAnnotations().toList()) + text( javaClass.getModifier()+  javaClass.getTypeToString() + javaClass.getName()))
+        var declaration : PrimeDoc = group(text( javaClass.getModifier()+  javaClass.getTypeToString() + javaClass.getName()))
 
         val nestSize = javaClass.getNestSize()
 
@@ -180,6 +180,6 @@ class JavaPrinter: Printer() {
 
         var argumentsCode: PrimeDoc = fill(argsDocs)
 
-        return group(declaration + text(" {") + nest(nestSize, line() + argumentsCode) + text(fieldList.get(lastIndex).getName())) / text("}")
+        return printAnnotations(javaClass.getAnnotations().toList()) + group(declaration + text(" {") + nest(nestSize, line() + argumentsCode) + text(fieldList.get(lastIndex).getName())) / text("}")
     }
 }
\ No newline at end of file
@@ -1,13 +1,15 @@
 package com.sdc.languages.js.languageParts;
 
 import JSPrinters.JSPrinter;
-import pretty.PrettyPackage;
 
 import com.sdc.languages.general.languageParts.GeneralClass;
+import com.sdc.util.CodeLayout;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 
@@ -26,7 +28,7 @@ public class JSClass extends GeneralClass {
                    final int nestSize) {
         super(modifier, type, name, packageName, implementedInterfaces, superClass
                 , genericTypes, genericIdentifiers, textWidth, nestSize);
-        this.myDefaultPackages = Arrays.asList(myPackage);
+        this.myDefaultPackages = new HashSet<String>(Arrays.asList(myPackage));
     }
 
     @NotNull
@@ -38,6 +40,11 @@ public class JSClass extends GeneralClass {
     @NotNull
     @Override
     public String toString() {
-        return PrettyPackage.pretty(myTextWidth, (new JSPrinter()).printClass(this));
+        return CodeLayout.layOut(mySession, myTextWidth, (new JSPrinter()).printClass(this));
+    }
+
+    @Override
+    public void print(final @NotNull Appendable output) throws IOException {
+        CodeLayout.layOut(mySession, myTextWidth, (new JSPrinter()).printClass(this), output);
     }
 }
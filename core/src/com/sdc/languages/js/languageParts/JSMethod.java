@@ -1,12 +1,12 @@
 package com.sdc.languages.js.languageParts;
 
 import JSPrinters.JSPrinter;
-import pretty.PrettyPackage;
 
 import com.sdc.languages.general.astUtils.Frame;
 import com.sdc.languages.general.languageParts.Method;
 import com.sdc.languages.js.astUtils.JSFrame;
 import com.sdc.languages.general.languageParts.GeneralClass;
+import com.sdc.util.CodeLayout;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -48,6 +48,6 @@ public class JSMethod extends Method {
     @NotNull
     @Override
     public String toString() {
-        return PrettyPackage.pretty(myTextWidth, (new JSPrinter()).printMethod(this));
+        return CodeLayout.layOut(myGeneralClass.getSession(), myTextWidth, (new JSPrinter()).printMethod(this));
     }
 }
@@ -6,7 +6,7 @@ import org.jetbrains.annotations.NotNull;
 
 
 public class JSOperationPrinter extends OperationPrinter {
-    protected static OperationPrinter ourInstance = new JSOperationPrinter();
+    private static final OperationPrinter ourInstance = new JSOperationPrinter();
 
     @NotNull
     public static OperationPrinter getInstance() {
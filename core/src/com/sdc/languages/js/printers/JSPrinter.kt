@@ -52,12 +52,12 @@ class JSPrinter : Printer() {
         if (!superClass.isEmpty())
             declaration = group(declaration + nest(javaClass.getNestSize(), line() + text("extends " + superClass)))
 
-        var javaClassCode : PrimeDoc = group(text("function " + javaClass.getName() + "() {"))
+        var javaClassCode : PrimeDoc = text("function " + javaClass.getName() + "() {")
 
-        for (classMethod in javaClass.getMethods().toList())
-            javaClassCode = javaClassCode + nest(javaClass.getNestSize(), line() + printMethod(classMethod))
+        for (methodCode in printMethods(javaClass))
+            javaClassCode = javaClassCode + nest(javaClass.getNestSize(), line() + methodCode)
 
-        return group(javaClassCode / text("}"))
+        return javaClassCode / text("}")
     }
 
     override fun printMethod(decompiledMethod: Method): PrimeDoc {
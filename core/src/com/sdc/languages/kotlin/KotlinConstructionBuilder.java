@@ -38,8 +38,8 @@ public class KotlinConstructionBuilder extends ConstructionBuilder {
 
     @NotNull
     @Override
-    public Construction build() {
-        final Construction generalConstruction = super.build();
+    protected Construction extractCompoundConstructions(final @NotNull Construction baseConstruction) {
+        final Construction generalConstruction = super.extractCompoundConstructions(baseConstruction);
 
         extractNullSafeFunctionCall(generalConstruction);
         extractWhen(generalConstruction);
@@ -66,7 +66,7 @@ public class KotlinVariable extends Variable {
 
         final String nullableMark = notNeedNullableMark ? "" : "?";
 
-        return new Type(myVariableType + nullableMark);
+        return Type.valueOf(myVariableType + nullableMark);
     }
 
     @NotNull
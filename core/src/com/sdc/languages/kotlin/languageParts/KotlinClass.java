@@ -3,13 +3,15 @@ package com.sdc.languages.kotlin.languageParts;
 import KotlinPrinters.KotlinPrinter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import pretty.PrettyPackage;
 
 import com.sdc.languages.general.languageParts.Method;
 import com.sdc.languages.general.languageParts.GeneralClass;
 import com.sdc.ast.expressions.Expression;
+import com.sdc.util.CodeLayout;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 
@@ -31,7 +33,7 @@ public class KotlinClass extends GeneralClass {
                        final int textWidth,
                        final int nestSize) {
         super(modifier, type, name, packageName, traits, superClass, genericTypes, genericIdentifiers, textWidth, nestSize);
-        this.myDefaultPackages = Arrays.asList(myPackage, "java.lang", "jet", "jet.runtime");
+        this.myDefaultPackages = new HashSet<String>(Arrays.asList(myPackage, "java.lang", "jet", "jet.runtime"));
     }
 
     public void setConstructor(final @NotNull Method constructor) {
@@ -95,6 +97,11 @@ public class KotlinClass extends GeneralClass {
     @NotNull
     @Override
     public String toString() {
-        return PrettyPackage.pretty(myTextWidth, (new KotlinPrinter()).printClass(this));
+        return CodeLayout.layOut(mySession, myTextWidth, (new KotlinPrinter()).printClass(this));
+    }
+
+    @Override
+    public void print(final @NotNull Appendable output) throws IOException {
+        CodeLayout.layOut(mySession, myTextWidth, (new KotlinPrinter()).printClass(this), output);
     }
 }
@@ -1,12 +1,12 @@
 package com.sdc.languages.kotlin.languageParts;
 
 import KotlinPrinters.KotlinPrinter;
-import pretty.PrettyPackage;
 
 import com.sdc.languages.general.languageParts.GeneralClass;
 import com.sdc.languages.general.astUtils.Frame;
 import com.sdc.languages.general.languageParts.Method;
 import com.sdc.languages.kotlin.astUtils.KotlinFrame;
+import com.sdc.util.CodeLayout;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -61,6 +61,6 @@ public class KotlinMethod extends Method {
     @NotNull
     @Override
     public String toString() {
-        return PrettyPackage.pretty(myTextWidth, (new KotlinPrinter()).printMethod(this));
+        return CodeLayout.layOut(myGeneralClass.getSession(), myTextWidth, (new KotlinPrinter()).printMethod(this));
     }
 }
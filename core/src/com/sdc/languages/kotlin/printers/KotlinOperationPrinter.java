@@ -6,7 +6,7 @@ import org.jetbrains.annotations.NotNull;
 
 
 public class KotlinOperationPrinter extends OperationPrinter {
-    protected static OperationPrinter ourInstance = new KotlinOperationPrinter();
+    private static final OperationPrinter ourInstance = new KotlinOperationPrinter();
 
     @NotNull
     public static OperationPrinter getInstance(){
@@ -97,14 +97,14 @@ class KotlinPrinter: Printer() {
             if (constructor != null && !(constructor as KotlinMethod).hasEmptyBody())
                 kotlinClassCode = kotlinClassCode + nest(kotlinClass.getNestSize(), line() + printInitialConstructor(kotlinClass.getConstructor()))
 
-            for (classMethod in kotlinClass.getMethods().toList())
-                kotlinClassCode = kotlinClassCode + nest(kotlinClass.getNestSize(), line() + printMethod(classMethod))
+            for (methodCode in printMethods(kotlinClass))
+                kotlinClassCode = kotlinClassCode + nest(kotlinClass.getNestSize(), line() + methodCode)
 
             return kotlinClassCode / text("}")
         } else {
             var kotlinCode : PrimeDoc = headerCode
-            for (method in kotlinClass.getMethods().toList())
-                kotlinCode = kotlinCode / printMethod(method)
+            for (methodCode in printMethods(kotlinClass))
+                kotlinCode = kotlinCode / methodCode
 
             return kotlinCode
         }
@@ -87,9 +87,10 @@ public class KotlinClassVisitor extends GeneralClassVisitor {
             try {
                 final GeneralClassVisitor cv = myVisitorFactory.createClassVisitor(myDecompiledClass.getTextWidth()
                         , myDecompiledClass.getNestSize());
-                cv.setClassFilesJarPath(myClassFilesJarPath);
+                cv.setSession(mySession);
+                cv.setClassSource(myClassSource);
 
-                final ClassReader cr = GeneralClassVisitor.getInnerClassClassReader(myClassFilesJarPath, decompiledClassName);
+                final ClassReader cr = myClassSource.getClassReader(decompiledClassName);
                 cr.accept(cv, 0);
 
                 myDecompiledClass = cv.getDecompiledClass();
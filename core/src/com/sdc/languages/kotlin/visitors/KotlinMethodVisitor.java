@@ -11,6 +11,7 @@ import com.sdc.languages.general.languageParts.GeneralClass;
 import com.sdc.languages.general.languageParts.Method;
 import com.sdc.languages.general.visitors.GeneralClassVisitor;
 import com.sdc.languages.general.visitors.GeneralMethodVisitor;
+import com.sdc.languages.general.visitors.OpcodeTable;
 import com.sdc.languages.general.ConstructionBuilder;
 
 import com.sdc.cfg.nodes.Node;
@@ -30,7 +31,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Label;
-import org.objectweb.asm.util.Printer;
 
 import java.io.IOException;
 import java.util.List;
@@ -62,15 +62,15 @@ public class KotlinMethodVisitor extends GeneralMethodVisitor {
 
     @Override
     public void visitFieldInsn(final int opcode, final String owner, final String name, final String desc) {
-        final String opString = Printer.OPCODES[opcode];
+        final OpcodeTable.Operation operation = OpcodeTable.getOperation(opcode);
 
-        if (opString.contains("GETSTATIC")) {
+        if (operation == OpcodeTable.Operation.GET_STATIC) {
             final Expression lambdaFunction = tryVisitLambdaFunction(owner);
             if (lambdaFunction != null) {
                 myBodyStack.push(lambdaFunction);
                 return;
             }
-        } else if (opString.contains("PUTFIELD")
+        } else if (operation == OpcodeTable.Operation.PUT_FIELD
                 && !name.startsWith("this$")
                 && myDecompiledOwnerFullClassName.equals(DeclarationWorker.decompileFullClassName(owner))) {
 
@@ -97,9 +97,8 @@ public class KotlinMethodVisitor extends GeneralMethodVisitor {
                         && KotlinVariable.isSharedVar(((Assignment) lastStatement).getRight().getType().toString(KotlinOperationPrinter.getInstance()))) {
                     myStatements.remove(myStatements.size() - 1);
                 } else {
-                    final String opString = Printer.OPCODES[opcode];
-
-                    if (opString.contains("STORE") && ((Assignment) lastStatement).getLeft() instanceof KotlinVariable) {
+                    if (OpcodeTable.getOperation(opcode) == OpcodeTable.Operation.STORE
+                            && ((Assignment) lastStatement).getLeft() instanceof KotlinVariable) {
                         ((KotlinVariable) ((Assignment) lastStatement).getLeft()).addAssignment();
                     }
                 }
@@ -109,13 +108,12 @@ public class KotlinMethodVisitor extends GeneralMethodVisitor {
 
     @Override
     public void visitTypeInsn(final int opcode, final String type) {
-        final String opString = Printer.OPCODES[opcode];
         final boolean needToGetDescriptor = type.contains("[") || type.contains(";");
         final String actualType = needToGetDescriptor
                 ? getDescriptor(type, 0, myDecompiledMethod.getImports())
                 : decompileClassNameWithOuterClasses(type);
 
-        if (opString.contains("CHECKCAST") && !myBodyStack.empty()) {
+        if (OpcodeTable.getOperation(opcode) == OpcodeTable.Operation.CHECK_CAST && !myBodyStack.empty()) {
             final String expressionType = myBodyStack.peek().getType().toString();
             if (!actualType.equals(expressionType) && !(actualType + "?").equals(expressionType)) {
                 myBodyStack.push(new Cast(ExpressionType.CHECK_CAST, myBodyStack.pop(), actualType));
@@ -127,7 +125,7 @@ public class KotlinMethodVisitor extends GeneralMethodVisitor {
 
     @Override
     public void visitMethodInsn(final int opcode, final String owner, final String name, final String desc) {
-        final String opString = Printer.OPCODES[opcode];
+        final OpcodeTable.Operation operation = OpcodeTable.getOperation(opcode);
 
         final String decompiledOwnerFullClassName = DeclarationWorker.decompileFullClassName(owner);
         final String ownerClassName = decompileClassNameWithOuterClasses(owner);
@@ -139,14 +137,14 @@ public class KotlinMethodVisitor extends GeneralMethodVisitor {
 
         boolean isStaticInvocation = false;
 
-        if (opString.contains("INVOKEVIRTUAL") || opString.contains("INVOKEINTERFACE")) {
+        if (operation == OpcodeTable.Operation.INVOKE_VIRTUAL || operation == OpcodeTable.Operation.INVOKE_INTERFACE) {
             if (!name.equals("<init>")) {
-                appendInstanceInvocation(name, hasVoidReturnType ? Type.VOID : new Type(returnType), arguments, myBodyStack.pop());
+                appendInstanceInvocation(name, hasVoidReturnType ? Type.VOID : Type.valueOf(returnType), arguments, myBodyStack.pop());
                 return;
             }
         }
 
-        if (opString.contains("INVOKESPECIAL")) {
+        if (operation == OpcodeTable.Operation.INVOKE_SPECIAL) {
             if (name.equals("<init>")) {
                 final Expression lambdaFunction = tryVisitLambdaFunction(owner);
                 if (lambdaFunction != null) {
@@ -165,14 +163,14 @@ public class KotlinMethodVisitor extends GeneralMethodVisitor {
             }
         }
 
-        if (opString.contains("INVOKESTATIC")) {
+        if (operation == OpcodeTable.Operation.INVOKE_STATIC) {
             myDecompiledMethod.addImport(decompiledOwnerFullClassName);
             if (!ownerClassName.equals("KotlinPackage") && !ownerClassName.contains(myDecompiledMethod.getDecompiledClass().getName())) {
                 if (!decompiledOwnerFullClassName.contains(".src.")) {
                     if (ownerClassName.contains("..")) {
                         invocationName = "super<" + ownerClassName.substring(0, ownerClassName.indexOf("..")) + ">." + name;
                         appendInstanceInvocation(invocationName
-                                , hasVoidReturnType ? Type.VOID : new Type(returnType), arguments, arguments.remove(0));
+                                , hasVoidReturnType ? Type.VOID : Type.valueOf(returnType), arguments, arguments.remove(0));
                         return;
                     } else {
                         invocationName = ownerClassName + "." + name;
@@ -182,7 +180,7 @@ public class KotlinMethodVisitor extends GeneralMethodVisitor {
                     invocationName = name;
                 }
             } else {
-                appendInstanceInvocation(name, hasVoidReturnType ? Type.VOID : new Type(returnType), arguments, arguments.remove(0));
+                appendInstanceInvocation(name, hasVoidReturnType ? Type.VOID : Type.valueOf(returnType), arguments, arguments.remove(0));
                 return;
             }
 
@@ -194,7 +192,7 @@ public class KotlinMethodVisitor extends GeneralMethodVisitor {
         }
 
         appendInvocationOrConstructor(isStaticInvocation, name, invocationName
-                , hasVoidReturnType ? Type.VOID : new Type(returnType), arguments, decompiledOwnerFullClassName);
+                , hasVoidReturnType ? Type.VOID : Type.valueOf(returnType), arguments, decompiledOwnerFullClassName);
     }
 
     @Override
@@ -249,9 +247,10 @@ public class KotlinMethodVisitor extends GeneralMethodVisitor {
             try {
                 final GeneralClassVisitor cv = myVisitorFactory.createClassVisitor(myDecompiledMethod.getTextWidth(), myDecompiledMethod.getNestSize());
                 cv.setIsLambdaFunction(true);
-                cv.setClassFilesJarPath(myClassFilesJarPath);
+                cv.setSession(mySession);
+                cv.setClassSource(myClassSource);
 
-                final ClassReader cr = GeneralClassVisitor.getInnerClassClassReader(myClassFilesJarPath, owner);
+                final ClassReader cr = myClassSource.getClassReader(owner);
                 cr.accept(cv, 0);
 
                 final GeneralClass decompiledClass = cv.getDecompiledClass();
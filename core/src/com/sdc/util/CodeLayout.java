@@ -0,0 +1,37 @@
+package com.sdc.util;
+
+import com.decompiler.DecompilerSession;
+import pretty.PrettyPackage;
+import pretty.PrimeDoc;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Lays out the docs of the printers: fitted to the text width, or plain if it is set in the session.
+ * The plain layout breaks the lines only where they are not grouped and does not depend on the width.
+ */
+public class CodeLayout {
+    private CodeLayout() {
+    }
+
+    @NotNull
+    public static String layOut(final @NotNull DecompilerSession session, final int textWidth, final @NotNull PrimeDoc doc) {
+        if (session.isPlainLayout()) {
+            return PrettyPackage.plain(doc);
+        }
+        return PrettyPackage.pretty(textWidth, doc);
+    }
+
+    public static void layOut(final @NotNull DecompilerSession session,
+                              final int textWidth,
+                              final @NotNull PrimeDoc doc,
+                              final @NotNull Appendable output) throws IOException {
+        if (session.isPlainLayout()) {
+            PrettyPackage.plain(doc, output);
+        } else {
+            PrettyPackage.pretty(textWidth, doc, output);
+        }
+    }
+}
@@ -15,6 +15,9 @@ public class DeclarationWorker {
     private final static Set<String> PRIMITIVE_TYPES = new HashSet<String>(Arrays.asList("Byte", "Long", "Boolean", "Integer",
             "Int", "Short", "Character", "Float", "Double", "Object"));
 
+    private final static int DESCRIPTOR_TRANSLATIONS_CAPACITY = 4096;
+    private final static DescriptorTranslationCache ourDescriptorTranslations = new DescriptorTranslationCache(DESCRIPTOR_TRANSLATIONS_CAPACITY);
+
     public enum SupportedLanguage {
         JAVA, JAVASCRIPT, KOTLIN
     }
@@ -109,11 +112,35 @@ public class DeclarationWorker {
         return sb.toString();
     }
 
+    /**
+     * The same descriptors recur in every class, so the translations and their imports are cached.
+     */
     @NotNull
     public static String getDescriptor(final @NotNull String descriptor,
                                        final int pos,
-                                       final @NotNull List<String> imports,
+                                       final @NotNull Collection<String> imports,
                                        final @NotNull SupportedLanguage language) {
+        final String cachedTranslation = ourDescriptorTranslations.get(descriptor, pos, language, imports);
+        if (cachedTranslation != null) {
+            return cachedTranslation;
+        }
+
+        // the imports found before a failure of the translation are kept, as the callers may go on
+        final List<String> translationImports = new ArrayList<String>();
+        try {
+            final String translation = translateDescriptor(descriptor, pos, translationImports, language);
+            ourDescriptorTranslations.put(descriptor, pos, language, translation, translationImports);
+            return translation;
+        } finally {
+            imports.addAll(translationImports);
+        }
+    }
+
+    @NotNull
+    private static String translateDescriptor(final @NotNull String descriptor,
+                                              final int pos,
+                                              final @NotNull List<String> imports,
+                                              final @NotNull SupportedLanguage language) {
         String result = "";
         switch (language) {
             case JAVA:
@@ -335,13 +362,13 @@ public class DeclarationWorker {
             index = (count - backupCount) == 1 ? count : count - 1;
 
             String variableType = type;
-            final String name = method.getNewTypeName(new Type(type));
+            final String name = method.getNewTypeName(Type.valueOf(type));
 
             if (language == SupportedLanguage.KOTLIN) {
                 variableType = isPrimitiveClass ? convertJavaPrimitiveClassToKotlin(type) + "?" : type;
             }
 
-            rootFrame.createAndInsertVariable(index, new Type(variableType), name);
+            rootFrame.createAndInsertVariable(index, Type.valueOf(variableType), name);
         }
 
         rootFrame.setLastMethodParameterIndex(index);
@@ -400,33 +427,27 @@ public class DeclarationWorker {
 
     @NotNull
     public static String decompileClassNameWithOuterClasses(final @NotNull String byteCodeFullClassName) {
-        final String[] classPackageParts = byteCodeFullClassName.contains("/")
-                ? byteCodeFullClassName.split("/")
-                : new String[] { byteCodeFullClassName };
-        final String actualClassName = classPackageParts[classPackageParts.length - 1];
+        final String actualClassName = getLastPart(byteCodeFullClassName, '/');
 
-        return replaceInnerClassName(actualClassName.replace("$", "."));
+        return replaceInnerClassName(actualClassName.replace('$', '.'));
     }
 
     @NotNull
     public static String decompileSimpleClassName(final @NotNull String byteCodeFullClassName) {
         final String className = decompileClassNameWithOuterClasses(byteCodeFullClassName);
-        final String[] innerClassesParts = className.contains(".")
-                ? className.split("\\.")
-                : new String[] { className };
 
-        return innerClassesParts[innerClassesParts.length - 1];
+        return getLastPart(className, '.');
     }
 
     @NotNull
     public static String decompileFullClassName(final @NotNull String byteCodeFullClassName) {
-        return replaceInnerClassName(byteCodeFullClassName.replace("/", ".").replace("$", "."));
+        return replaceInnerClassName(byteCodeFullClassName.replace('/', '.').replace('$', '.'));
     }
 
     @NotNull
     public static String decompileClassNameForImport(final @NotNull String byteCodeFullClassName) {
-        final String className = byteCodeFullClassName.replace("/", ".");
-        final int innerClassStartIndex = className.indexOf("$");
+        final String className = byteCodeFullClassName.replace('/', '.');
+        final int innerClassStartIndex = className.indexOf('$');
 
         return replaceInnerClassName(innerClassStartIndex == -1
                 ? className
@@ -449,8 +470,39 @@ public class DeclarationWorker {
         return className.contains(" ") ? result + " " : result;
     }
 
+    /**
+     * The part after the last separator, trailing separators are skipped as split does.
+     */
+    @NotNull
+    private static String getLastPart(final @NotNull String name, final char separator) {
+        int end = name.length();
+        while (end > 0 && name.charAt(end - 1) == separator) {
+            end--;
+        }
+        return name.substring(name.lastIndexOf(separator, end - 1) + 1, end);
+    }
+
+    /**
+     * Usually no part of the name starts with a digit, the name is returned as it is then.
+     */
+    private static boolean isAcceptableName(final @NotNull String className) {
+        if (className.endsWith(".")) {
+            return false;
+        }
+        for (int i = 0; i < className.length(); i++) {
+            if ((i == 0 || className.charAt(i - 1) == '.') && Character.isDigit(className.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @NotNull
     private static String convertInnerClassesToAcceptableName(final @NotNull String initialClassName) {
+        if (isAcceptableName(initialClassName)) {
+            return initialClassName;
+        }
+
         final String[] classParts = initialClassName.contains(".")
                 ? initialClassName.split("\\.")
                 : new String[] { initialClassName };
@@ -0,0 +1,88 @@
+package com.sdc.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Translations of the descriptors made by {@link DeclarationWorker#getDescriptor}, together with the imports
+ * they add. A translation depends only on the descriptor, the position and the language, so one cache is shared
+ * by all decompiling threads.
+ * <p/>
+ * The cache is a fixed array of immutable entries indexed by the hash of the key, a new entry replaces
+ * the one with the same index. Looking an entry up allocates nothing.
+ */
+public class DescriptorTranslationCache {
+    private static class Entry {
+        private final String myDescriptor;
+        private final int myPos;
+        private final DeclarationWorker.SupportedLanguage myLanguage;
+        private final String myTranslation;
+        private final String[] myImports;
+
+        private Entry(final @NotNull String descriptor,
+                      final int pos,
+                      final @NotNull DeclarationWorker.SupportedLanguage language,
+                      final @NotNull String translation,
+                      final @NotNull String[] imports) {
+            this.myDescriptor = descriptor;
+            this.myPos = pos;
+            this.myLanguage = language;
+            this.myTranslation = translation;
+            this.myImports = imports;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> myEntries;
+    private final int myMask;
+
+    /**
+     * The capacity is rounded up to a power of two.
+     */
+    public DescriptorTranslationCache(final int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.myEntries = new AtomicReferenceArray<Entry>(size);
+        this.myMask = size - 1;
+    }
+
+    /**
+     * Returns null if the translation is not cached, otherwise adds its imports to the given ones.
+     */
+    @Nullable
+    public String get(final @NotNull String descriptor,
+                      final int pos,
+                      final @NotNull DeclarationWorker.SupportedLanguage language,
+                      final @NotNull Collection<String> imports) {
+        final Entry entry = myEntries.get(getIndex(descriptor, pos, language));
+        if (entry == null || entry.myPos != pos || entry.myLanguage != language || !entry.myDescriptor.equals(descriptor)) {
+            return null;
+        }
+
+        Collections.addAll(imports, entry.myImports);
+        return entry.myTranslation;
+    }
+
+    public void put(final @NotNull String descriptor,
+                    final int pos,
+                    final @NotNull DeclarationWorker.SupportedLanguage language,
+                    final @NotNull String translation,
+                    final @NotNull List<String> imports) {
+        myEntries.set(getIndex(descriptor, pos, language)
+                , new Entry(descriptor, pos, language, translation, imports.toArray(new String[imports.size()])));
+    }
+
+    private int getIndex(final @NotNull String descriptor,
+                         final int pos,
+                         final @NotNull DeclarationWorker.SupportedLanguage language) {
+        int hash = (descriptor.hashCode() * 31 + pos) * 31 + language.ordinal();
+        hash ^= hash >>> 16;
+        return hash & myMask;
+    }
+}
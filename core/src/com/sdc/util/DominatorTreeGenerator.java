@@ -1,5 +1,6 @@
 package com.sdc.util;
 
+import com.sdc.cfg.ControlFlowGraph;
 import com.sdc.cfg.nodes.Node;
 
 import org.jetbrains.annotations.NotNull;
@@ -7,238 +8,397 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
-
+/**
+ * Immediate dominators and post-dominators of the method graph, computed by the iterative algorithm
+ * of Cooper, Harvey and Kennedy over int arrays. The first node is the entry and the last one is the exit,
+ * nodes which do not reach the exit (returns and throws before it) are treated as if they were followed by it.
+ */
 public class DominatorTreeGenerator {
+    private static final int UNDEFINED = -1;
+
     private final int size;
-    private List<Node> myNodes;
-    private ArrayList<ArrayList<Integer>> myGraph;
-    private ArrayList<ArrayList<Integer>> myDomiTree;
-    private ArrayList<ArrayList<Integer>> myPostTree;
-    private ArrayList<ArrayList<Boolean>> myMarkEdge;
-    private boolean[] mark;
-    private int[] id, semi, domi, post;
-    private int index;
-    private int max;
+    private final ControlFlowGraph myGraph;
+    private int[][] myDomiTree;
+    private int[][] myPostTree;
+    // a node is in the post dominator subtree of another one if its interval is inside the interval of the other
+    private int[] myPostTreeEnter;
+    private int[] myPostTreeExit;
+    // loop headers are the nodes with edges from later ones, the body of a loop is the range of nodes
+    // from its first tail to the right index, it is UNDEFINED for other nodes
+    private int[] myLoopRightIndex;
+    private int[] domi, post;
 
     public DominatorTreeGenerator(final @NotNull List<Node> myNodes) {
-        this.myNodes = myNodes;
-        this.size = myNodes.size();
+        this(new ControlFlowGraph(myNodes));
+    }
+
+    public DominatorTreeGenerator(final @NotNull ControlFlowGraph graph) {
+        this.myGraph = graph;
+        this.size = graph.getSize();
+        this.myLoopRightIndex = new int[size];
+        Arrays.fill(myLoopRightIndex, UNDEFINED);
         if (size > 1) {
-            this.domi = getDominators();
-            this.post = getPostDominators();
+            this.domi = getImmediateDominators(0, false);
+            this.post = getImmediateDominators(size - 1, true);
             this.myDomiTree = getDomiTree();
             this.myPostTree = getPostTree();
+            numberPostTree();
+            findLoops();
         }
     }
 
-    // walk graph
-    private void dfs(final int v) {
-        id[v] = index++;
-        mark[v] = true;
-
-        for (Integer tail : myGraph.get(v)) {
-            if (!mark[tail]) {
-                myMarkEdge.get(v).set(myGraph.get(v).indexOf(tail), true);
-                dfs(tail);
+    /**
+     * Immediate dominators by the edges of the graph, or by the reversed edges for post dominators.
+     * In the latter case nodes which are not reachable from the root are also walked from themselves,
+     * as if the root had edges to them. The root, such walk roots and unreachable nodes are marked as -1.
+     */
+    @NotNull
+    private int[] getImmediateDominators(final int root, final boolean isReversed) {
+        // nodes in postorder and postorder numbers, the root is the last one
+        final int[] order = new int[size];
+        final int[] number = new int[size];
+        Arrays.fill(number, UNDEFINED);
+        final boolean[] isWalkRoot = new boolean[size];
+
+        final int[] stack = new int[size];
+        final int[] nextTail = new int[size];
+        final boolean[] visited = new boolean[size];
+        int count = 0;
+
+        for (int start = isReversed ? size : root; start >= 0; start--) {
+            final int v = start == size ? root : start;
+            if (visited[v]) {
+                continue;
             }
-        }
-    }
 
-    private void findSemi(final int curVertex, final int waypoint) {
-        if (mark[curVertex]) return;
-        mark[curVertex] = true;
+            isWalkRoot[v] = true;
+            visited[v] = true;
+            int top = 0;
+            stack[0] = v;
+            nextTail[v] = 0;
+            while (top >= 0) {
+                final int u = stack[top];
+                if (nextTail[u] < getTailsCount(u, isReversed)) {
+                    final int tail = getTail(u, nextTail[u]++, isReversed);
+                    if (!visited[tail]) {
+                        visited[tail] = true;
+                        nextTail[tail] = 0;
+                        stack[++top] = tail;
+                    }
+                } else {
+                    if (u != root) {
+                        number[u] = count;
+                        order[count++] = u;
+                    }
+                    top--;
+                }
+            }
 
-        if (id[curVertex] < id[waypoint]) {
-            if (semi[waypoint] == -1 || id[curVertex] < id[semi[waypoint]]) {
-                semi[waypoint] = curVertex;
+            if (!isReversed) {
+                break;
             }
-            return;
         }
-        for (int i = 0; i < size; i++) {
-            for (int tail : myGraph.get(i))
-                if (tail == curVertex) {
-                    findSemi(i, waypoint);
+        number[root] = count;
+        order[count] = root;
+
+        final int[] dominators = new int[size];
+        Arrays.fill(dominators, UNDEFINED);
+        dominators[root] = root;
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = count - 1; i >= 0; i--) {
+                final int v = order[i];
+                int newDominator = UNDEFINED;
+                final int predecessorsCount = getTailsCount(v, !isReversed);
+                for (int j = 0; j < predecessorsCount; j++) {
+                    final int predecessor = getTail(v, j, !isReversed);
+                    if (dominators[predecessor] != UNDEFINED) {
+                        newDominator = newDominator == UNDEFINED
+                                ? predecessor
+                                : intersect(predecessor, newDominator, dominators, number);
+                    }
                 }
+                if (isWalkRoot[v]) {
+                    newDominator = newDominator == UNDEFINED
+                            ? root
+                            : intersect(root, newDominator, dominators, number);
+                }
+                if (dominators[v] != newDominator) {
+                    dominators[v] = newDominator;
+                    changed = true;
+                }
+            }
         }
-    }
 
-    private void findSemi() {
-        int[] indexes = new int[size];
-        for (int i = 0; i < size; i++) {
-            indexes[id[i]] = i;
-        }
-        for (int i = size - 1; i > 0; i--) {
-            Arrays.fill(mark, false);
-            findSemi(indexes[i], indexes[i]);
+        for (int v = 0; v < size; v++) {
+            if (isWalkRoot[v]) {
+                dominators[v] = UNDEFINED;
+            }
         }
+        return dominators;
+    }
+
+    private int getTailsCount(final int v, final boolean isReversed) {
+        return isReversed ? myGraph.getPredecessorsCount(v) : myGraph.getSuccessorsCount(v);
     }
 
-    private boolean findDomi(final int from, final int to) {
-        if (from == to) return true;
-        boolean res = false;
+    private int getTail(final int v, final int i, final boolean isReversed) {
+        return isReversed ? myGraph.getPredecessor(v, i) : myGraph.getSuccessor(v, i);
+    }
 
-        for (int i = 0; i < size; i++) {
-            for (int j : myGraph.get(i)) {
-                if (myMarkEdge.get(i).get(myGraph.get(i).indexOf(j)) && i == from && findDomi(j, to)) {
-                    res = true;
-                    if (id[semi[j]] < id[semi[to]]) {
-                        semi[to] = semi[j];
-                    }
-                }
+    private static int intersect(int v1, int v2, final @NotNull int[] dominators, final @NotNull int[] number) {
+        while (v1 != v2) {
+            while (number[v1] < number[v2]) {
+                v1 = dominators[v1];
+            }
+            while (number[v2] < number[v1]) {
+                v2 = dominators[v2];
             }
         }
-        return res;
+        return v1;
     }
 
-    private void findDomi() {
-        for (int i = 0; i < size; i++) {
-            findDomi(semi[i], i);
+    /**
+     * Returns the index after the last node which is dominated by the loop body and post dominated by the loop header.
+     * The loop of a node which is not a loop header is empty, so the index of the node itself is returned.
+     */
+    public int getRightIndexForLoop(final int index) {
+        return myLoopRightIndex[index] == UNDEFINED ? index : myLoopRightIndex[index];
+    }
+
+    private boolean isLoopHeader(final int v) {
+        if (myGraph.getSuccessorsCount(v) == 0) {
+            return false;
+        }
+        for (int i = 0; i < myGraph.getPredecessorsCount(v); i++) {
+            if (myGraph.getPredecessor(v, i) > v) {
+                return true;
+            }
         }
+        return false;
     }
 
-    private void build(final boolean isPostDominatorTree) {
-        index = 0;
-        mark = new boolean[size];
-        id = new int[size];
-        semi = new int[size];
-        myGraph = new ArrayList<ArrayList<Integer>>();
-        myMarkEdge = new ArrayList<ArrayList<Boolean>>();
+    /**
+     * The nodes of the loop body are the ones in the dominator subtree of its first tail and strictly in the
+     * post dominator subtree of the header, which are the ones with post tree numbers inside the interval of the header.
+     * The dominator tree is walked bottom up, the subtrees are kept as segment trees by post tree numbers
+     * and merged into their parents, so all the loops are found in O(n log n).
+     */
+    private void findLoops() {
+        // loop headers by the first tails of them
+        final int[] firstHeader = new int[size];
+        final int[] nextHeader = new int[size];
+        Arrays.fill(firstHeader, UNDEFINED);
+        boolean hasLoops = false;
+        for (int v = 0; v < size; v++) {
+            if (isLoopHeader(v)) {
+                final int start = myGraph.getSuccessor(v, 0);
+                nextHeader[v] = firstHeader[start];
+                firstHeader[start] = v;
+                hasLoops = true;
+            }
+        }
+        if (!hasLoops) {
+            return;
+        }
 
-        Arrays.fill(semi, -1);
-        for (int i = 0; i < size; i++) {
-            myGraph.add(new ArrayList<Integer>());
-            myMarkEdge.add(new ArrayList<Boolean>());
-        }
-
-        ListIterator li = myNodes.listIterator(isPostDominatorTree ? myNodes.size() : 0);
-
-        while (isPostDominatorTree ? li.hasPrevious() : li.hasNext()) {
-            Node node = (Node) (isPostDominatorTree ? li.previous() : li.next());
-            List<Node> nodes = isPostDominatorTree ? node.getAncestors() : node.getListOfTails();
-            for (Node tailNode : nodes) {
-                myGraph.get(node.getIndex()).add(tailNode.getIndex());
-                myMarkEdge.get(node.getIndex()).add(false);
-            }
-        }
-        Arrays.fill(id, -1);
-        dfs(isPostDominatorTree ? size - 1 : 0);
-        if (isPostDominatorTree) {
-            boolean fl = true;
-            while (fl) {
-                int k = 0;
-                for (int i = size - 1; i >= 0; i--) {
-                    if (id[i] == -1) {
-                        dfs(i);
-                    } else {
-                        k++;
-                    }
+        final MaxSegmentTrees trees = new MaxSegmentTrees(2 * size, size);
+        final int[] subtree = new int[size];
+        final int[] stack = new int[size];
+        final int[] nextChild = new int[size];
+
+        for (int root = 0; root < size; root++) {
+            if (domi[root] != UNDEFINED) {
+                continue;
+            }
+
+            int top = 0;
+            stack[0] = root;
+            while (top >= 0) {
+                final int v = stack[top];
+                if (nextChild[v] < myDomiTree[v].length) {
+                    stack[++top] = myDomiTree[v][nextChild[v]++];
+                    continue;
+                }
+                top--;
+
+                subtree[v] = trees.createLeaf(myPostTreeEnter[v], v);
+                for (final int child : myDomiTree[v]) {
+                    subtree[v] = trees.merge(subtree[v], subtree[child]);
                 }
-                if (k == size) {
-                    fl = false;
+                for (int header = firstHeader[v]; header != UNDEFINED; header = nextHeader[header]) {
+                    final int max = trees.getMax(subtree[v], myPostTreeEnter[header] + 1, myPostTreeExit[header] - 1);
+                    myLoopRightIndex[header] = max + 1;
                 }
             }
         }
-        findSemi();
-        findDomi();
     }
 
-    @NotNull
-    private int[] getDominators() {
-        return getTree(false);
-    }
+    private void numberPostTree() {
+        myPostTreeEnter = new int[size];
+        myPostTreeExit = new int[size];
+        final int[] stack = new int[size];
+        final int[] nextChild = new int[size];
+        int time = 0;
 
-    @NotNull
-    private int[] getPostDominators() {
-        return getTree(true);
+        for (int root = 0; root < size; root++) {
+            if (post[root] != UNDEFINED) {
+                continue;
+            }
+
+            int top = 0;
+            stack[0] = root;
+            myPostTreeEnter[root] = time++;
+            while (top >= 0) {
+                final int v = stack[top];
+                if (nextChild[v] < myPostTree[v].length) {
+                    final int child = myPostTree[v][nextChild[v]++];
+                    myPostTreeEnter[child] = time++;
+                    stack[++top] = child;
+                } else {
+                    myPostTreeExit[v] = time++;
+                    top--;
+                }
+            }
+        }
     }
 
     @NotNull
-    private int[] getTree(final boolean isPostDominatorTree) {
-        build(isPostDominatorTree);
-        return semi;
+    private int[][] getDomiTree() {
+        return getChildren(domi, size);
     }
 
-    public int getRightIndexForLoop(final int index) {
-        Set<Integer> set = new HashSet<Integer>();
-        max = -1;
-
-        final int indexOfInnerLoopPart = myNodes.get(index).getListOfTails().get(0).getIndex();
-        set.add(indexOfInnerLoopPart);
-
-        Arrays.fill(mark, false);
-        dfsDomiTree(myDomiTree, indexOfInnerLoopPart, set);
-
-        Arrays.fill(mark, false);
-        dfsPostTree(myPostTree, index, set);
-
-        return max + 1;
+    @NotNull
+    private int[][] getPostTree() {
+        return getChildren(post, size - 1);
     }
 
+    /**
+     * Children of the first {@code count} nodes in the tree given by parents, in increasing order.
+     */
     @NotNull
-    private ArrayList<ArrayList<Integer>> getDomiTree() {
-        ArrayList<ArrayList<Integer>> domiTree = new ArrayList<ArrayList<Integer>>();
+    private int[][] getChildren(final @NotNull int[] parents, final int count) {
+        final int[] childrenCount = new int[size];
+        for (int i = 0; i < count; i++) {
+            if (parents[i] != UNDEFINED) {
+                childrenCount[parents[i]]++;
+            }
+        }
 
+        final int[][] tree = new int[size][];
         for (int i = 0; i < size; i++) {
-            domiTree.add(new ArrayList<Integer>());
+            tree[i] = new int[childrenCount[i]];
         }
 
-        for (int i = 1; i < domi.length; i++) {
-            domiTree.get(domi[i]).add(i);
+        Arrays.fill(childrenCount, 0);
+        for (int i = 0; i < count; i++) {
+            if (parents[i] != UNDEFINED) {
+                tree[parents[i]][childrenCount[parents[i]]++] = i;
+            }
         }
-
-        return domiTree;
+        return tree;
     }
 
+    /**
+     * Nodes immediately dominated by the given one, in increasing order.
+     */
     @NotNull
-    private ArrayList<ArrayList<Integer>> getPostTree() {
-        ArrayList<ArrayList<Integer>> postTree = new ArrayList<ArrayList<Integer>>();
+    public int[] getDomiTreeChildren(final int index) {
+        return myDomiTree[index];
+    }
 
-        for (int i = 0; i < size; i++) {
-            postTree.add(new ArrayList<Integer>());
+    @Nullable
+    public int[] getDomi() {
+        return domi;
+    }
+
+    /**
+     * Segment trees over the keys 0 ... keysCount - 1 with the maximum of the values, -1 stands for no values.
+     * The trees are sparse, they share the node arrays, and merging takes the nodes of the merged tree.
+     */
+    private static class MaxSegmentTrees {
+        private static final int EMPTY = 0;
+
+        private final int myKeysCount;
+        private final int[] myLeft;
+        private final int[] myRight;
+        private final int[] myMax;
+        private int myNodesCount = 1;
+
+        public MaxSegmentTrees(final int keysCount, final int leavesCount) {
+            this.myKeysCount = keysCount;
+
+            int depth = 1;
+            while ((1 << (depth - 1)) < keysCount) {
+                depth++;
+            }
+            final int capacity = leavesCount * depth + 1;
+            myLeft = new int[capacity];
+            myRight = new int[capacity];
+            myMax = new int[capacity];
         }
 
-        for (int i = 0; i < post.length - 1; i++) {
-            if (post[i] != -1) {
-                postTree.get(post[i]).add(i);
+        public int createLeaf(final int key, final int value) {
+            final int root = myNodesCount;
+            int lo = 0;
+            int hi = myKeysCount - 1;
+            while (true) {
+                final int node = myNodesCount++;
+                myMax[node] = value;
+                if (lo == hi) {
+                    return root;
+                }
+                final int mid = (lo + hi) >>> 1;
+                if (key <= mid) {
+                    myLeft[node] = myNodesCount;
+                    hi = mid;
+                } else {
+                    myRight[node] = myNodesCount;
+                    lo = mid + 1;
+                }
             }
         }
 
-        return postTree;
-    }
+        public int merge(final int first, final int second) {
+            return merge(first, second, 0, myKeysCount - 1);
+        }
 
-    private void dfsDomiTree(final @NotNull ArrayList<ArrayList<Integer>> tree,
-                             final int v,
-                             final @NotNull Set<Integer> set) {
-        mark[v] = true;
+        private int merge(final int first, final int second, final int lo, final int hi) {
+            if (first == EMPTY) {
+                return second;
+            }
+            if (second == EMPTY) {
+                return first;
+            }
 
-        for (Integer tail : tree.get(v)) {
-            if (!mark[tail]) {
-                set.add(tail);
-                dfsDomiTree(tree, tail, set);
+            myMax[first] = Math.max(myMax[first], myMax[second]);
+            if (lo < hi) {
+                final int mid = (lo + hi) >>> 1;
+                myLeft[first] = merge(myLeft[first], myLeft[second], lo, mid);
+                myRight[first] = merge(myRight[first], myRight[second], mid + 1, hi);
             }
+            return first;
         }
-    }
 
-    private void dfsPostTree(final @NotNull ArrayList<ArrayList<Integer>> tree,
-                             final int v,
-                             final @NotNull Set<Integer> set) {
-        mark[v] = true;
+        /**
+         * The maximum of the values with the keys from the given range.
+         */
+        public int getMax(final int tree, final int from, final int to) {
+            return getMax(tree, from, to, 0, myKeysCount - 1);
+        }
 
-        for (Integer tail : tree.get(v)) {
-            if (!mark[tail]) {
-                if (set.contains(tail) && max < tail) {
-                    max = tail;
-                }
-                dfsPostTree(tree, tail, set);
+        private int getMax(final int tree, final int from, final int to, final int lo, final int hi) {
+            if (tree == EMPTY || to < lo || hi < from || from > to) {
+                return -1;
+            }
+            if (from <= lo && hi <= to) {
+                return myMax[tree];
             }
-        }
-    }
 
-    @Nullable
-    public int[] getDomi() {
-        return domi;
+            final int mid = (lo + hi) >>> 1;
+            return Math.max(getMax(myLeft[tree], from, to, lo, mid), getMax(myRight[tree], from, to, mid + 1, hi));
+        }
     }
 }
-
-
-
@@ -0,0 +1,85 @@
+package com.sdc.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs independent tasks on an executor and returns their results in the order of the tasks.
+ * The caller does not wait for the tasks not started yet but runs them itself, so a task may run
+ * nested tasks on the same executor, e.g. the methods of an inner class, without waiting for a free thread.
+ */
+public class ParallelTasks {
+    private ParallelTasks() {
+    }
+
+    /**
+     * Pool of daemon threads, it does not need to be shut down before the exit.
+     */
+    @NotNull
+    public static ExecutorService createExecutor(final int threadsCount, final @NotNull String threadName) {
+        final AtomicInteger threadsCounter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threadsCount, new ThreadFactory() {
+            @Override
+            public Thread newThread(final @NotNull Runnable runnable) {
+                final Thread thread = new Thread(runnable, threadName + "-" + threadsCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * The tasks are run one by one in the current thread if there is no executor.
+     * The first exception in the order of the tasks is rethrown, the tasks not started yet are cancelled then.
+     */
+    @NotNull
+    public static <T> List<T> invokeAll(final @Nullable ExecutorService executor, final @NotNull List<? extends Callable<T>> tasks) {
+        final List<FutureTask<T>> futureTasks = new ArrayList<FutureTask<T>>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            final FutureTask<T> futureTask = new FutureTask<T>(task);
+            futureTasks.add(futureTask);
+            if (executor != null && tasks.size() > 1) {
+                executor.execute(futureTask);
+            }
+        }
+
+        final List<T> results = new ArrayList<T>(tasks.size());
+        try {
+            for (final FutureTask<T> futureTask : futureTasks) {
+                // does nothing if the task is already started by the executor
+                futureTask.run();
+                results.add(getResult(futureTask));
+            }
+        } finally {
+            if (results.size() < futureTasks.size()) {
+                for (final FutureTask<T> futureTask : futureTasks) {
+                    futureTask.cancel(false);
+                }
+            }
+        }
+        return results;
+    }
+
+    private static <T> T getResult(final @NotNull FutureTask<T> futureTask) {
+        try {
+            return futureTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.sdc.util.graph;
 
-import com.decompiler.Settings;
 import com.sdc.cfg.nodes.Node;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.util.List;
@@ -11,10 +11,12 @@ import java.util.List;
 public class GraphDrawer {
     private final List<Node> myNodes;
     private final String myFileName;
+    private final String myPath;
 
-    public GraphDrawer(final @NotNull List<Node> myNodes, final @NotNull String myFileName) {
+    public GraphDrawer(final @NotNull List<Node> myNodes, final @NotNull String myFileName, final @Nullable String myPath) {
         this.myNodes = myNodes;
         this.myFileName = myFileName;
+        this.myPath = myPath;
     }
 
     public void draw() {
@@ -33,8 +35,7 @@ public class GraphDrawer {
         }
         gv.addln(gv.end_graph());
 
-        final String path = Settings.getInstance().getPath();
-        final String folder = (path == null) ? "graphs\\" : path + "\\graphs\\";
+        final String folder = (myPath == null) ? "graphs\\" : myPath + "\\graphs\\";
         final File dir = new File(folder);
         dir.mkdir();
         final String type = "png";
@@ -2,7 +2,6 @@ package pretty
 
 import java.util.ArrayList
 import java.util.LinkedList
-import java.util.Stack
 import java.util.AbstractList
 
 /*
@@ -53,9 +52,28 @@ fun nest(nestSize: Int, doc: PrimeDoc) = PrimeNest(nestSize, doc)
 fun text(text: String?) = PrimeText(text)
 fun line() = PrimeLine()
 
-fun group(doc: PrimeDoc) = PrimeChoose({ flatten(doc) } , doc)
+fun group(doc: PrimeDoc) = PrimeGroup(doc)
 
-fun pretty(width: Int, doc: PrimeDoc): String = layout(best(width, 0, doc))
+fun pretty(width: Int, doc: PrimeDoc): String {
+    val output = StringBuilder()
+    pretty(width, doc, output)
+    return output.toString()
+}
+
+fun pretty(width: Int, doc: PrimeDoc, output: Appendable) {
+    val bestLayout = BestLayout(width)
+    bestLayout.layout(0, doc, 0)
+    bestLayout.render(doc, 0, output)
+}
+
+// Every group is flat and every fill takes its flat choice, so the lines are broken only where they are not grouped
+fun plain(doc: PrimeDoc): String {
+    val output = StringBuilder()
+    plain(doc, output)
+    return output.toString()
+}
+
+fun plain(doc: PrimeDoc, output: Appendable) = PlainLayout().render(doc, output)
 
 // Utility
 fun lnest(nestSize: Int, doc: PrimeDoc) = nest(nestSize, line() + doc)
@@ -84,36 +102,39 @@ fun nestedBreak(leftDoc: PrimeDoc, nestSize: Int, rightDoc: PrimeDoc): PrimeDoc
 }
 */
 
-fun fill(docList: List<PrimeDoc>): PrimeDoc {
-    val head = docList.head
-    val tail = docList.tail
-
-    if (head == null) {
-        return nil()
-    }
-
-    if (tail.size == 0) {
-        return head
-    }
-
-    return PrimeChoose({ flatten(head) + fill(tail) }, head / fill(tail))
-}
+// Every doc but the last is either flattened and followed by the next one or followed by a line
+fun fill(docList: List<PrimeDoc>): PrimeDoc =
+        when (docList.size()) {
+            0    -> nil()
+            1    -> docList.get(0)
+            else -> PrimeFill(ArrayList<PrimeDoc>(docList), 0)
+        }
 
 fun bracket(openBracket: String, doc: PrimeDoc, closeBracket: String, nestSize: Int = 2): PrimeDoc =
         group(text(openBracket) + nest(nestSize, line() + doc) + line() + text(closeBracket))
 
-fun spread(docList : List<PrimeDoc>): PrimeDoc =
-        foldl({a, b -> a + b}
-              , nil()
-              , docList)
+fun spread(docList : List<PrimeDoc>): PrimeDoc = spread(docList, 0, docList.size())
 
-fun stack(docList : List<PrimeDoc>): PrimeDoc =
-        foldl({a, b -> a / b}
-                , nil()
-                , docList)
+// Every doc is preceded by a line
+fun stack(docList : List<PrimeDoc>): PrimeDoc = stack(docList, 0, docList.size())
 
 // ----- INTERFACE END -----
 
+// The docs are joined by halves, so the depth of the result is logarithmic in their count
+fun spread(docList: List<PrimeDoc>, from: Int, to: Int): PrimeDoc =
+        when (to - from) {
+            0    -> nil()
+            1    -> docList.get(from)
+            else -> spread(docList, from, (from + to) / 2) + spread(docList, (from + to) / 2, to)
+        }
+
+fun stack(docList: List<PrimeDoc>, from: Int, to: Int): PrimeDoc =
+        when (to - from) {
+            0    -> nil()
+            1    -> line() + docList.get(from)
+            else -> stack(docList, from, (from + to) / 2) + stack(docList, (from + to) / 2, to)
+        }
+
 fun foldl<T>(func: (T, T) -> T, start: T, list: List<T>) : T {
     var result = start
     for (elem in list) {
@@ -140,17 +161,15 @@ class PrimeChoose(
           val leftDoc:  () -> PrimeDoc //TODO: проанализировать на сколько помогло
         , val rightDoc: PrimeDoc
 ) : PrimeDoc()
-
-abstract class Doc(val fitSize: Int)
-class Nil() : Doc(0)
-class Text(
-          val text: String
-        , var doc:  Doc
-) : Doc(text.length + doc.fitSize)
-class Line(
-          val nestSize: Int
-        , var doc:      Doc
-) : Doc(0)
+// The choice between the flattened doc and the doc itself, the flattened one is never built
+class PrimeGroup(
+        val doc: PrimeDoc
+) : PrimeDoc()
+// The fill of the docs from the start one, there are at least two of them at first
+class PrimeFill(
+          val docs:  List<PrimeDoc>
+        , val start: Int
+) : PrimeDoc()
 
 fun flatten(doc: PrimeDoc): PrimeDoc =
         when (doc) {
@@ -160,156 +179,370 @@ fun flatten(doc: PrimeDoc): PrimeDoc =
             is PrimeText   -> doc //PrimeText(doc.text)
             is PrimeLine   -> PrimeText(" ")
             is PrimeChoose -> flatten(doc.leftDoc())
+            is PrimeGroup  -> flatten(doc.doc)
+            is PrimeFill   -> spread(doc.docs.subList(doc.start, doc.docs.size()).map { flatten(it) })
 
             else -> throw IllegalArgumentException("Unknown PrimeDoc.")
         }
 
-fun spaces(count: Int): String {
-    val builder = StringBuilder()
-    for (i in 1..count) {
-        builder.append(" ")
+// Marks the work stack items of flattened docs instead of the nest size
+val FLAT_NEST_SIZE = -1
+
+// Indentations are appended as parts of it
+val SPACES = "                                                                "
+
+fun appendSpaces(output: Appendable, count: Int) {
+    var rest = count
+    while (rest > 0) {
+        val partSize = Math.min(rest, SPACES.length())
+        output.append(SPACES, 0, partSize)
+        rest -= partSize
     }
-    return builder.toString()
 }
 
-fun layout(doc: Doc): String {
-    val resultBuilder = StringBuilder()
-    var curDoc: Doc   = doc
+// The doc chosen for a choice, it is laid out flat or as is
+class Choice(
+          val doc:    PrimeDoc
+        , val isFlat: Boolean
+        // the state of the layout after the choice, to restore when the choice is over
+        , val textsCountAfter:      Int
+        , val fitSizeAfter:         Int
+        , val alreadyOccupiedAfter: Int
+)
 
-    while (true) {
-        val workingDoc = curDoc
+/*
+ * Docs are laid out from the end, the occupied width is the width of the text after the current position
+ * up to the next line.
+ *
+ * The doc chosen by a choice is a segment of the result: it does not change the occupied width of the docs
+ * before it, and its fit size, the width of the text from its start up to the next line, ends with it.
+ * So the chosen doc is followed by a null work stack item which closes the segment.
+ *
+ * Choices are kept when they are closed, i.e. the inner ones first, from the end.
+ * So render() walks the doc from the start and takes them from the end of the list.
+ */
+class BestLayout(val width: Int) {
+    private val workDocs      = ArrayList<PrimeDoc?>()
+    private val workNestSizes = ArrayList<Int>()
+    private val openChoices   = ArrayList<Choice>()
+
+    val choices = ArrayList<Choice>()
+
+    private var alreadyOccupied = 0
+    private var nextChoice = 0
+    // Count of the texts and lines laid out
+    var textsCount = 0
+        private set
+    // Fit size of the laid out texts
+    var fitSize = 0
+        private set
+
+    fun layout(startAlreadyOccupied: Int, doc : PrimeDoc, nestSize : Int) {
+        alreadyOccupied = startAlreadyOccupied
+        push(nestSize, doc)
+
+        while (!workDocs.isEmpty()) {
+            val doc      = workDocs.remove(workDocs.size() - 1)
+            val nestSize = workNestSizes.remove(workNestSizes.size() - 1)
+
+            if (doc == null) {
+                closeChoice()
+            } else if (nestSize == FLAT_NEST_SIZE) {
+                layoutFlat(doc)
+            } else {
+                layout(doc, nestSize)
+            }
+        }
+    }
 
-        when (workingDoc) {
-            is Nil  -> break
-            is Text -> {
-                resultBuilder.append(workingDoc.text)
-                curDoc = workingDoc.doc
+    private fun layout(doc: PrimeDoc, nestSize: Int) {
+        when (doc) {
+            is PrimeNil    -> {}
+            is PrimeBeside -> {
+                push(nestSize, doc.leftDoc)
+                push(nestSize, doc.rightDoc)
+            }
+            is PrimeNest   -> push(doc.nestSize + nestSize, doc.doc)
+            is PrimeText   -> {
+                addText(doc.text as String)
+                alreadyOccupied += doc.text.length()
+            }
+            is PrimeLine   -> {
+                textsCount++
+                fitSize = 0
+                alreadyOccupied = nestSize
+            }
+
+            is PrimeGroup  -> {
+                if (fitsFlat(width - alreadyOccupied, doc.doc)) {
+                    openChoice(doc.doc, true)
+                    push(FLAT_NEST_SIZE, doc.doc)
+                } else {
+                    openChoice(doc.doc, false)
+                    push(nestSize, doc.doc)
+                }
             }
-            is Line -> {
-                resultBuilder.append("\n" + spaces(workingDoc.nestSize))
-                curDoc = workingDoc.doc
+            is PrimeChoose -> {
+                val leftDoc = doc.leftDoc()
+                val leftLayout = BestLayout(width)
+                leftLayout.layout(alreadyOccupied, leftDoc, nestSize)
+                if (width - alreadyOccupied > leftLayout.fitSize) {
+                    choices.addAll(leftLayout.choices)
+                    choices.add(Choice(leftDoc, false, textsCount, fitSize, alreadyOccupied))
+                    if (leftLayout.textsCount > 0) {
+                        textsCount += leftLayout.textsCount
+                        fitSize = leftLayout.fitSize
+                    }
+                } else {
+                    openChoice(doc.rightDoc, false)
+                    push(nestSize, doc.rightDoc)
+                }
             }
+            is PrimeFill   -> layoutFill(doc, nestSize)
 
-            else -> throw IllegalArgumentException("Unknown Doc.")
+            else -> throw IllegalArgumentException("Unknown PrimeDoc.")
         }
     }
 
-    return resultBuilder.toString()
-}
+    /*
+     * The rest of the fill after a doc is laid out in the same way whether the doc is flattened or not,
+     * so the fill is laid out once from its last doc. Like a choice it does not change the occupied width.
+     */
+    private fun layoutFill(doc: PrimeFill, nestSize: Int) {
+        val docs = doc.docs
+        val lastIndex = docs.size() - 1
+
+        val lastLayout = BestLayout(width)
+        lastLayout.layout(alreadyOccupied, docs.get(lastIndex), nestSize)
+        choices.addAll(lastLayout.choices)
+        var fillTextsCount = lastLayout.textsCount
+        var fillFitSize    = lastLayout.fitSize
+
+        for (i in lastIndex - 1 downTo doc.start) {
+            val itemDoc    = docs.get(i)
+            val itemLayout = BestLayout(width)
+            if (fitsFlat(width - alreadyOccupied - fillFitSize, itemDoc)) {
+                itemLayout.layout(0, itemDoc, FLAT_NEST_SIZE)
+                choices.add(Choice(itemDoc, true, textsCount, fitSize, alreadyOccupied))
+                fillFitSize += itemLayout.fitSize
+            } else {
+                // the doc is followed by a line
+                itemLayout.layout(nestSize, itemDoc, nestSize)
+                choices.addAll(itemLayout.choices)
+                choices.add(Choice(itemDoc, false, textsCount, fitSize, alreadyOccupied))
+                fillTextsCount++
+                fillFitSize = itemLayout.fitSize
+            }
+            fillTextsCount += itemLayout.textsCount
+        }
 
-abstract class StackDoc()
-class StackNil : StackDoc()
-class StackLine(val nestSize: Int   ) : StackDoc()
-class StackText(val text:     String) : StackDoc()
+        if (fillTextsCount > 0) {
+            textsCount += fillTextsCount
+            fitSize = fillFitSize
+        }
+    }
 
-class StackDocDoc(val doc: Doc) : StackDoc()
+    private fun layoutFlat(doc: PrimeDoc) {
+        when (doc) {
+            is PrimeNil    -> {}
+            is PrimeBeside -> {
+                push(FLAT_NEST_SIZE, doc.leftDoc)
+                push(FLAT_NEST_SIZE, doc.rightDoc)
+            }
+            is PrimeNest   -> push(FLAT_NEST_SIZE, doc.doc)
+            is PrimeText   -> addText(doc.text as String)
+            is PrimeLine   -> addText(" ")
+            is PrimeChoose -> push(FLAT_NEST_SIZE, doc.leftDoc())
+            is PrimeGroup  -> push(FLAT_NEST_SIZE, doc.doc)
+            is PrimeFill   -> {
+                for (i in doc.start..doc.docs.size() - 1) {
+                    push(FLAT_NEST_SIZE, doc.docs.get(i))
+                }
+            }
+
+            else -> throw IllegalArgumentException("Unknown PrimeDoc.")
+        }
+    }
 
-fun moveNil(docToMoveNil: Doc, docForNilPlace: Doc): Doc {
-    if (docToMoveNil is Nil) {
-        return docForNilPlace
+    private fun push(nestSize: Int, doc: PrimeDoc?) {
+        workDocs.add(doc)
+        workNestSizes.add(nestSize)
     }
 
-    var curSubtreeDoc = docToMoveNil
-    while (true) {
-        val curSubtreeDoc_val = curSubtreeDoc
-        when (curSubtreeDoc_val) {
-            is Text -> {
-                if (curSubtreeDoc_val.doc is Nil) {
-                    curSubtreeDoc_val.doc = docForNilPlace
-                    return docToMoveNil
-                }
+    private fun addText(text: String) {
+        textsCount++
+        fitSize += text.length()
+    }
+
+    private fun openChoice(doc: PrimeDoc, isFlat: Boolean) {
+        openChoices.add(Choice(doc, isFlat, textsCount, fitSize, alreadyOccupied))
+        fitSize = 0
+        push(0, null)
+    }
+
+    private fun closeChoice() {
+        val choice = openChoices.remove(openChoices.size() - 1)
+        alreadyOccupied = choice.alreadyOccupiedAfter
+        if (textsCount == choice.textsCountAfter) {
+            fitSize = choice.fitSizeAfter
+        }
+        choices.add(choice)
+    }
 
-                curSubtreeDoc = curSubtreeDoc_val.doc
+    /*
+     * Appends the laid out doc to the output from the start.
+     */
+    fun render(doc: PrimeDoc, nestSize: Int, output: Appendable) {
+        nextChoice = choices.size() - 1
+        push(nestSize, doc)
+
+        while (!workDocs.isEmpty()) {
+            val workingDoc = workDocs.remove(workDocs.size() - 1)
+            val nestSize   = workNestSizes.remove(workNestSizes.size() - 1)
+
+            if (nestSize == FLAT_NEST_SIZE) {
+                when (workingDoc) {
+                    is PrimeNil    -> {}
+                    is PrimeBeside -> {
+                        push(FLAT_NEST_SIZE, workingDoc.rightDoc)
+                        push(FLAT_NEST_SIZE, workingDoc.leftDoc)
+                    }
+                    is PrimeNest   -> push(FLAT_NEST_SIZE, workingDoc.doc)
+                    is PrimeText   -> output.append(workingDoc.text as String)
+                    is PrimeLine   -> output.append(" ")
+                    is PrimeChoose -> push(FLAT_NEST_SIZE, workingDoc.leftDoc())
+                    is PrimeGroup  -> push(FLAT_NEST_SIZE, workingDoc.doc)
+                    is PrimeFill   -> {
+                        for (i in workingDoc.docs.size() - 1 downTo workingDoc.start) {
+                            push(FLAT_NEST_SIZE, workingDoc.docs.get(i))
+                        }
+                    }
+
+                    else -> throw IllegalArgumentException("Unknown PrimeDoc.")
+                }
+                continue
             }
 
-            is Line -> {
-                if (curSubtreeDoc_val.doc is Nil) {
-                    curSubtreeDoc_val.doc = docForNilPlace
-                    return docToMoveNil
+            when (workingDoc) {
+                is PrimeNil    -> {}
+                is PrimeBeside -> {
+                    push(nestSize, workingDoc.rightDoc)
+                    push(nestSize, workingDoc.leftDoc)
+                }
+                is PrimeNest   -> push(workingDoc.nestSize + nestSize, workingDoc.doc)
+                is PrimeText   -> output.append(workingDoc.text as String)
+                is PrimeLine   -> {
+                    output.append("\n")
+                    appendSpaces(output, nestSize)
+                }
+                is PrimeGroup  -> pushNextChoice(nestSize)
+                is PrimeChoose -> pushNextChoice(nestSize)
+                is PrimeFill   -> {
+                    val docs = workingDoc.docs
+                    if (workingDoc.start == docs.size() - 1) {
+                        push(nestSize, docs.get(workingDoc.start))
+                    } else {
+                        push(nestSize, PrimeFill(docs, workingDoc.start + 1))
+                        if (!choices.get(nextChoice).isFlat) {
+                            push(nestSize, PrimeLine())
+                        }
+                        pushNextChoice(nestSize)
+                    }
                 }
 
-                curSubtreeDoc = curSubtreeDoc_val.doc
+                else -> throw IllegalArgumentException("Unknown PrimeDoc.")
             }
-
-            else -> throw IllegalArgumentException("Incorrect Doc tree.")
         }
     }
-}
 
-fun docFromStack(stack: ArrayList<StackDoc>): Doc {
-    var curResult: Doc = Nil()
-
-    for (curElem in stack) {
-        when (curElem) {
-            is StackNil  -> {}
-            is StackText -> curResult = Text(curElem.text    , curResult)
-            is StackLine -> curResult = Line(curElem.nestSize, curResult)
+    private fun pushNextChoice(nestSize: Int) {
+        val choice = choices.get(nextChoice--)
+        push(if (choice.isFlat) FLAT_NEST_SIZE else nestSize, choice.doc)
+    }
+}
 
-            is StackDocDoc -> curResult = moveNil(curElem.doc, curResult)
+/*
+ * The layout for an unlimited width: it is made in one pass from the start, as every choice is the flat one.
+ */
+class PlainLayout() {
+    private val workDocs      = ArrayList<PrimeDoc>()
+    private val workNestSizes = ArrayList<Int>()
+
+    fun render(doc: PrimeDoc, output: Appendable) {
+        push(0, doc)
+
+        while (!workDocs.isEmpty()) {
+            val workingDoc = workDocs.remove(workDocs.size() - 1)
+            val nestSize   = workNestSizes.remove(workNestSizes.size() - 1)
+
+            when (workingDoc) {
+                is PrimeNil    -> {}
+                is PrimeBeside -> {
+                    push(nestSize, workingDoc.rightDoc)
+                    push(nestSize, workingDoc.leftDoc)
+                }
+                is PrimeNest   -> push(if (nestSize == FLAT_NEST_SIZE) nestSize else workingDoc.nestSize + nestSize, workingDoc.doc)
+                is PrimeText   -> output.append(workingDoc.text as String)
+                is PrimeLine   -> {
+                    if (nestSize == FLAT_NEST_SIZE) {
+                        output.append(" ")
+                    } else {
+                        output.append("\n")
+                        appendSpaces(output, nestSize)
+                    }
+                }
+                // the left doc is flat only where it is flattened
+                is PrimeChoose -> push(nestSize, workingDoc.leftDoc())
+                is PrimeGroup  -> push(FLAT_NEST_SIZE, workingDoc.doc)
+                // the last doc of a fill is not flattened
+                is PrimeFill   -> {
+                    val docs = workingDoc.docs
+                    push(nestSize, docs.get(docs.size() - 1))
+                    for (i in docs.size() - 2 downTo workingDoc.start) {
+                        push(FLAT_NEST_SIZE, docs.get(i))
+                    }
+                }
 
-            else -> throw IllegalArgumentException("Unknown stack element")
+                else -> throw IllegalArgumentException("Unknown PrimeDoc.")
+            }
         }
     }
 
-    return curResult
+    private fun push(nestSize: Int, doc: PrimeDoc) {
+        workDocs.add(doc)
+        workNestSizes.add(nestSize)
+    }
 }
 
-fun best(width: Int, startAlreadyOccupied: Int, doc : PrimeDoc, nestSize : Int = 0): Doc {
-    val workStack = Stack<Pair<Int, PrimeDoc>>()
-    workStack.push(Pair(nestSize, doc))
-    val resultStack = ArrayList<StackDoc>()
-    var alreadyOccupied = startAlreadyOccupied
+// Whether the flattened doc is shorter than the place, it is walked only until the place is over
+fun fitsFlat(placeSize: Int, doc: PrimeDoc): Boolean {
+    var freeSize = placeSize
+    val workDocs = ArrayList<PrimeDoc>()
+    workDocs.add(doc)
 
-    while (true) {
-        if (workStack.empty) {
-            return docFromStack(resultStack)
-        }
-
-        val head     = workStack.pop()
-        val nestSize = head!!.first
-        val doc      = head.second
+    while (freeSize > 0 && !workDocs.isEmpty()) {
+        val workingDoc = workDocs.remove(workDocs.size() - 1)
 
-        when (doc) {
-            is PrimeNil    -> resultStack.add(StackNil())
+        when (workingDoc) {
+            is PrimeNil    -> {}
             is PrimeBeside -> {
-                workStack.push(Pair(nestSize, doc.leftDoc))
-                workStack.push(Pair(nestSize, doc.rightDoc))
-            }
-            is PrimeNest   -> {
-                workStack.push(Pair(doc.nestSize + nestSize, doc.doc))
-            }
-            is PrimeText   -> {
-                resultStack.add(StackText(doc.text as String))
-                alreadyOccupied += doc.text.length()
-            }
-            is PrimeLine   -> {
-                resultStack.add(StackLine(nestSize))
-                alreadyOccupied = nestSize
+                workDocs.add(workingDoc.rightDoc)
+                workDocs.add(workingDoc.leftDoc)
             }
-
-            is PrimeChoose -> {
-                val leftDoc = best(width, alreadyOccupied, doc.leftDoc(), nestSize)
-                if (fits(width - alreadyOccupied, { leftDoc }) != null) {
-                    resultStack.add(StackDocDoc(leftDoc))
-                } else {
-                    val rightDoc = best(width, alreadyOccupied, doc.rightDoc, nestSize)
-                    resultStack.add(StackDocDoc(rightDoc))
+            is PrimeNest   -> workDocs.add(workingDoc.doc)
+            is PrimeText   -> freeSize -= (workingDoc.text as String).length()
+            is PrimeLine   -> freeSize -= 1
+            is PrimeChoose -> workDocs.add(workingDoc.leftDoc())
+            is PrimeGroup  -> workDocs.add(workingDoc.doc)
+            is PrimeFill   -> {
+                for (i in workingDoc.docs.size() - 1 downTo workingDoc.start) {
+                    workDocs.add(workingDoc.docs.get(i))
                 }
             }
 
             else -> throw IllegalArgumentException("Unknown PrimeDoc.")
         }
     }
-}
 
-fun fits(placeSize: Int, docFunc: () -> Doc): Doc? {
-    if (placeSize < 0) return null
-
-    val doc = docFunc()
-
-    return if (placeSize > doc.fitSize) {
-        doc
-    } else {
-        null
-    }
+    return freeSize > 0
 }
@@ -0,0 +1,56 @@
+package com.decompiler;
+
+import generators.LargeMethods;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Constructions in a row are built and printed without recursion, so a method of the largest possible number
+ * of branches is decompiled with a stack much smaller than the default one.
+ */
+public class LargeMethodDecompilerTest {
+    private static final int BRANCHES_COUNT = 5000;
+    private static final long STACK_SIZE = 512 * 1024;
+
+    @Test
+    public void testJava() throws Exception {
+        checkAllBranchesDecompiled("java");
+    }
+
+    @Test
+    public void testKotlin() throws Exception {
+        checkAllBranchesDecompiled("kotlin");
+    }
+
+    @Test
+    public void testJavaScript() throws Exception {
+        checkAllBranchesDecompiled("js");
+    }
+
+    private static void checkAllBranchesDecompiled(final @NotNull String languageName) throws Exception {
+        final ClassReader cr = LargeMethods.generateBranches(BRANCHES_COUNT);
+        final String[] decompiledCode = new String[1];
+        final Throwable[] error = new Throwable[1];
+
+        final Thread thread = new Thread(null, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    decompiledCode[0] = Decompiler.getDecompiledCode(new DecompilerSession(), languageName, cr, "", 100, 4);
+                } catch (Throwable e) {
+                    error[0] = e;
+                }
+            }
+        }, "large-method-decompiler", STACK_SIZE);
+        thread.start();
+        thread.join();
+
+        assertNull(String.valueOf(error[0]), error[0]);
+        assertEquals(BRANCHES_COUNT, decompiledCode[0].split("else", -1).length - 1);
+    }
+}
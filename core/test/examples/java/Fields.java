@@ -4,7 +4,7 @@ import com.sdc.ast.Type;
 
 public class Fields {
     public static String s = new StringBuilder().append("2") + "ab";
-    private static Type t = new Type(s);
+    private static Type t = Type.valueOf(s);
     private int i;
 
     //private  static int h= j--;
@@ -0,0 +1,110 @@
+package generators;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates classes with methods much larger or much more numerous than the ones of real classes.
+ */
+public class LargeMethods {
+    public static final String CLASS_NAME = "LargeMethod";
+
+    private LargeMethods() {
+    }
+
+    /**
+     * static int branches(int x) made of the given number of
+     * "if (x == 0) r += 1; else r += 2;" statements, which returns r.
+     * Methods are limited to 64K of bytecode, so there may be up to about 5000 of them.
+     */
+    @NotNull
+    public static ClassReader generateBranches(final int branchesCount) {
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_6, ACC_PUBLIC | ACC_SUPER, CLASS_NAME, null, "java/lang/Object", null);
+
+        generateBranchesMethod(cw, "branches", branchesCount);
+
+        cw.visitEnd();
+        return new ClassReader(cw.toByteArray());
+    }
+
+    /**
+     * The given number of methods static int branchesI(int x) like the one of {@link #generateBranches(int)}.
+     */
+    @NotNull
+    public static ClassReader generateMethods(final int methodsCount, final int branchesCount) {
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_6, ACC_PUBLIC | ACC_SUPER, CLASS_NAME, null, "java/lang/Object", null);
+
+        for (int i = 0; i < methodsCount; i++) {
+            generateBranchesMethod(cw, "branches" + i, branchesCount);
+        }
+
+        cw.visitEnd();
+        return new ClassReader(cw.toByteArray());
+    }
+
+    private static void generateBranchesMethod(final @NotNull ClassWriter cw, final @NotNull String name, final int branchesCount) {
+        final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, name, "(I)I", null, null);
+        mv.visitCode();
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, 1);
+        for (int i = 0; i < branchesCount; i++) {
+            final Label elseLabel = new Label();
+            final Label joinLabel = new Label();
+            mv.visitVarInsn(ILOAD, 0);
+            mv.visitJumpInsn(IFNE, elseLabel);
+            mv.visitIincInsn(1, 1);
+            mv.visitJumpInsn(GOTO, joinLabel);
+            mv.visitLabel(elseLabel);
+            mv.visitIincInsn(1, 2);
+            mv.visitLabel(joinLabel);
+        }
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * static int loops(int x) made of the given number of nested "while (x != 0) { ...; r += 1; }" loops, which returns r.
+     */
+    @NotNull
+    public static ClassReader generateLoops(final int loopsCount) {
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_6, ACC_PUBLIC | ACC_SUPER, CLASS_NAME, null, "java/lang/Object", null);
+
+        final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "loops", "(I)I", null, null);
+        mv.visitCode();
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, 1);
+
+        final Label[] headLabels = new Label[loopsCount];
+        final Label[] exitLabels = new Label[loopsCount];
+        for (int i = 0; i < loopsCount; i++) {
+            headLabels[i] = new Label();
+            exitLabels[i] = new Label();
+            mv.visitLabel(headLabels[i]);
+            mv.visitVarInsn(ILOAD, 0);
+            mv.visitJumpInsn(IFEQ, exitLabels[i]);
+        }
+        for (int i = loopsCount - 1; i >= 0; i--) {
+            mv.visitIincInsn(1, 1);
+            mv.visitJumpInsn(GOTO, headLabels[i]);
+            mv.visitLabel(exitLabels[i]);
+        }
+
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return new ClassReader(cw.toByteArray());
+    }
+}
@@ -1,7 +1,7 @@
 package com;
 
+import com.decompiler.DecompilerSession;
 import com.decompiler.Language;
-import com.decompiler.Settings;
 
 import com.actions.DecompilationChoiceListener;
 import com.actions.NavigationListener;
@@ -36,6 +36,7 @@ public class JBLabDecompiler implements ApplicationComponent, DecompilationChoic
 
     @Nullable
     public static VirtualFile decompile(final @NotNull PluginConfigComponent config,
+                                        final @Nullable Project project,
                                         final @Nullable VirtualFile virtualFile) {
         //Number of bytes CAFEBABE
         final int CAFEBABE = 4;
@@ -52,13 +53,18 @@ public class JBLabDecompiler implements ApplicationComponent, DecompilationChoic
             if (magic == 0xCAFEBABE) {
                 is.reset();
                 final Language lang = config.getChosenLanguage();
+                final DecompilerSession session = new DecompilerSession();
+                session.setPlainLayout(config.isPlainLayoutEnabled());
+                if (project != null) {
+                    session.setPath(project.getBasePath());
+                }
 
                 final String initialClassFilePath = virtualFile.getPath();
                 final int jarIndex = initialClassFilePath.indexOf(".jar!/");
                 final String jarPath = jarIndex == -1 ? "" : initialClassFilePath.substring(0, jarIndex + 4);
 
                 decompiledFile = new LightVirtualFile(virtualFile.getNameWithoutExtension() + lang.getExtension(),
-                        getDecompiledCode(lang.getName(), is, jarPath, config.getTextWidth(), config.getTabSize()));
+                        getDecompiledCode(session, lang.getName(), is, jarPath, config.getTextWidth(), config.getTabSize()));
             }
             is.close();
         } catch (IOException e1) {
@@ -69,12 +75,13 @@ public class JBLabDecompiler implements ApplicationComponent, DecompilationChoic
     }
 
     @NotNull
-    private static String getDecompiledCode(final String languageName,
+    private static String getDecompiledCode(final DecompilerSession session,
+                                            final String languageName,
                                             final InputStream is,
                                             final String classFilesJarPath,
                                             final Integer textWidth,
                                             final Integer tabSize) throws IOException {
-        return com.decompiler.Decompiler.getDecompiledCode(languageName, new ClassReader(is), classFilesJarPath, textWidth, tabSize);
+        return com.decompiler.Decompiler.getDecompiledCode(session, languageName, new ClassReader(is), classFilesJarPath, textWidth, tabSize);
     }
 
     public void initComponent() {
@@ -93,7 +100,6 @@ public class JBLabDecompiler implements ApplicationComponent, DecompilationChoic
     @Override
     public void projectOpened(final Project project) {
         this.myCurrentProject = project;
-        Settings.getInstance().setPath(myCurrentProject.getBasePath());
         final NavigationListener navigationListener = new NavigationListener(this);
         project.getMessageBus().connect().subscribe(FileEditorManagerListener.FILE_EDITOR_MANAGER, navigationListener);
     }
@@ -119,7 +125,7 @@ public class JBLabDecompiler implements ApplicationComponent, DecompilationChoic
         final PluginConfigComponent config =
                 ApplicationManager.getApplication().getComponent(PluginConfigComponent.class);
 
-        final VirtualFile decompiledFile = decompile(config, file);
+        final VirtualFile decompiledFile = decompile(config, myCurrentProject, file);
 
         if (decompiledFile != null) {
             if (!config.isShowPrettyEnabled()) {
@@ -28,7 +28,7 @@ public class DecompileAction extends AnAction {
         final Project project = e.getData(PlatformDataKeys.PROJECT);
         PluginConfigComponent config = ApplicationManager.getApplication().getComponent(PluginConfigComponent.class);
 
-        VirtualFile decompiledFile = decompile(config, DataKeys.VIRTUAL_FILE.getData(e.getDataContext()));
+        VirtualFile decompiledFile = decompile(config, project, DataKeys.VIRTUAL_FILE.getData(e.getDataContext()));
 
         if (decompiledFile != null) {
             if (!config.isShowPrettyEnabled()) {
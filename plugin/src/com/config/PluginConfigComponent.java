@@ -32,9 +32,11 @@ public class PluginConfigComponent implements ApplicationComponent, Configurable
     private static final String CHOOSE_LANGUAGE_ATTRIBUTE = "selectLanguage";
     private static final String SHOW_TAB_SIZE = "displayTabSize";
     private static final String SHOW_TEXT_WIDTH = "displayTextWidth";
+    private static final String PLAIN_LAYOUT_ATTRIBUTE = "plainLayoutEnabled";
     private static final String DEFAULT_LANGUAGE = "Java";
     private PluginConfigurationPane myConfigPane;
     private boolean myShowPrettyEnabled;
+    private boolean myPlainLayoutEnabled;
     private Language myChosenLanguage;
     private Integer myTextWidth, myTabSize;
 
@@ -127,6 +129,14 @@ public class PluginConfigComponent implements ApplicationComponent, Configurable
         this.myShowPrettyEnabled = showMetadataEnabled;
     }
 
+    public boolean isPlainLayoutEnabled() {
+        return myPlainLayoutEnabled;
+    }
+
+    public void setPlainLayoutEnabled(final boolean plainLayoutEnabled) {
+        this.myPlainLayoutEnabled = plainLayoutEnabled;
+    }
+
     @Override
     public Element getState() {
         Element configuration = new Element(CONFIGURATION_CONFIG_ELEMENT);
@@ -134,6 +144,7 @@ public class PluginConfigComponent implements ApplicationComponent, Configurable
         configuration.setAttribute(SHOW_PRETTY_ATTRIBUTE, String.valueOf(myShowPrettyEnabled));
         configuration.setAttribute(SHOW_TAB_SIZE, String.valueOf(myTabSize));
         configuration.setAttribute(SHOW_TEXT_WIDTH, String.valueOf(myTextWidth));
+        configuration.setAttribute(PLAIN_LAYOUT_ATTRIBUTE, String.valueOf(myPlainLayoutEnabled));
         return configuration;
     }
 
@@ -150,6 +161,11 @@ public class PluginConfigComponent implements ApplicationComponent, Configurable
         if (StringUtils.isNotBlank(showPrettyStr)) {
             myShowPrettyEnabled = Boolean.valueOf(showPrettyStr);
         }
+
+        String plainLayoutStr = configuration.getAttributeValue(PLAIN_LAYOUT_ATTRIBUTE);
+        if (StringUtils.isNotBlank(plainLayoutStr)) {
+            myPlainLayoutEnabled = Boolean.valueOf(plainLayoutStr);
+        }
     }
 
 }
@@ -17,6 +17,7 @@ public class PluginConfigurationPane {
     private JComboBox myLanguageComboBox;
     private JTextField myTabSizeField;
     private JTextField myTextWidthField;
+    private JCheckBox myPlainLayoutCheckBox;
     private Language mySelectedLanguage;
 
 
@@ -59,6 +60,7 @@ public class PluginConfigurationPane {
         pluginComponent.setShowPrettyEnabled(myShowPrettyCheckBox.isSelected());
         pluginComponent.setTabSize(Integer.valueOf(myTabSizeField.getText()));
         pluginComponent.setTextWidth(Integer.valueOf(myTextWidthField.getText()));
+        pluginComponent.setPlainLayoutEnabled(myPlainLayoutCheckBox.isSelected());
     }
 
     public void readDataFrom(final PluginConfigComponent pluginComponent) {
@@ -66,6 +68,7 @@ public class PluginConfigurationPane {
         myShowPrettyCheckBox.setSelected(pluginComponent.isShowPrettyEnabled());
         myTabSizeField.setText(pluginComponent.getTabSize().toString());
         myTextWidthField.setText(pluginComponent.getTextWidth().toString());
+        myPlainLayoutCheckBox.setSelected(pluginComponent.isPlainLayoutEnabled());
 
         if (pluginComponent.isShowPrettyEnabled()) {
             myTabSizeField.setEditable(true);
@@ -80,7 +83,8 @@ public class PluginConfigurationPane {
         return !myLanguageComboBox.getSelectedItem().equals(pluginComponent.getChosenLanguage().getName())
                 || myShowPrettyCheckBox.isSelected() != pluginComponent.isShowPrettyEnabled()
                 || !myTabSizeField.getText().equals(pluginComponent.getTabSize().toString())
-                || !myTextWidthField.getText().equals(pluginComponent.getTextWidth().toString());
+                || !myTextWidthField.getText().equals(pluginComponent.getTextWidth().toString())
+                || myPlainLayoutCheckBox.isSelected() != pluginComponent.isPlainLayoutEnabled();
     }
 
     public JPanel getRootPane() {